@@ -0,0 +1,204 @@
+/**
+ * This Class implements the parallel auction algorithm to find maximum bipartite matching
+ * every left node is a bidder and every right node is an object with a price, benefit of every edge is same
+ * Functionality includes:
+ * 1. unassigned left nodes are taken from a shared queue by the worker threads
+ * 2. left node bids for its best right node, price is raised with compare and set and owner is swapped atomically
+ * 3. previous owner of the right node becomes unassigned and goes back to the queue
+ * 4. left node stays unassigned when every right node is priced above the benefit
+ * 5. epsilon scaling, every round keeps the prices (capped below benefit) and reduces the bid increment until it is one
+ * 6. remaining augmenting paths are applied at the end so that result is always maximum
+ * prices are integers, benefit is power of two greater than number of left nodes so last round has epsilon below benefit/n
+ * @author Sayali Kudale
+ */
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public class AuctionBipartiteMatching {
+
+    private static final int epsilonScaleFactor = 4;	//epsilon is divided by this factor after every round
+    private int threads;
+    private int initialEpsilon;
+    private BipartiteAdjacency graph;
+    private int benefit;
+    private AtomicIntegerArray price;
+    private AtomicIntegerArray owner;
+    private ConcurrentLinkedQueue<Integer> unassigned;
+    private AtomicInteger pending;
+    private LongAdder bids;
+    private int rounds;
+    private int augmentations;
+
+    /**
+     *constructor to initialise auction object
+     * as benefit of every edge is same, single round with epsilon one needs the least bids on random graphs
+     * so scaling is used only when initial epsilon is given greater than one
+     * @param threads number of bidding threads
+     * @param initialEpsilon bid increment of the first round
+     * pre: threads and initialEpsilon should be at least one
+     * post: auction object gets initialised
+     */
+    public AuctionBipartiteMatching(int threads, int initialEpsilon) {
+        if (threads < 1)
+            throw new IllegalArgumentException("Number of threads should be at least one");
+        if (initialEpsilon < 1)
+            throw new IllegalArgumentException("Epsilon should be at least one");
+        this.threads = threads;
+        this.initialEpsilon = initialEpsilon;
+    }
+
+    /**
+     *This method
+     * 1. creates prices and owners of the right nodes
+     * 2. runs the auction rounds with reducing epsilon
+     * 3. completes the matching with remaining augmenting paths
+     * @param g
+     * @return
+     * @throws InterruptedException
+     * pre: compressed adjacency should be created
+     * post: returns mate array of maximum matching with 0 for unmatched nodes
+     */
+    public int[] findMaxMatching(BipartiteAdjacency g) throws InterruptedException {
+
+        this.graph = g;
+        int setSize = g.getSetSize();
+        int rightSize = g.getNoOfNodes() - setSize;
+        benefit = Integer.highestOneBit(setSize) << 1;
+        price = new AtomicIntegerArray(rightSize);
+        owner = new AtomicIntegerArray(rightSize);
+        bids = new LongAdder();
+        rounds = 0;
+
+        for (int epsilon = Math.min(initialEpsilon, benefit / 2); ; epsilon = Math.max(1, epsilon / epsilonScaleFactor)) {
+            runRound(epsilon);
+            rounds++;
+            if (epsilon == 1)
+                break;
+        }
+
+        int[] mate = new int[g.getNoOfNodes() + 1];
+        for (int j = 0; j < rightSize; j++) {
+            int left = owner.get(j);
+            if (left != 0) {
+                mate[left] = j + setSize + 1;
+                mate[j + setSize + 1] = left;
+            }
+        }
+        augmentations = AugmentingPathSearch.augmentToMaximum(g, mate);
+        return mate;
+    }
+
+    /**
+     *This method runs one auction round for the given epsilon
+     * owners are cleared but prices are kept from the previous round, prices are capped to
+     * benefit minus epsilon so that no right node is left too costly for every left node
+     * @param epsilon
+     * @throws InterruptedException
+     * pre: prices and owners should be created
+     * post: every left node is either assigned or has given up
+     */
+    private void runRound(int epsilon) throws InterruptedException {
+
+        int setSize = graph.getSetSize();
+        int[] offsets = graph.getOffsets();
+        for (int j = 0; j < owner.length(); j++) {
+            owner.set(j, 0);
+            if (price.get(j) > benefit - epsilon)
+                price.set(j, benefit - epsilon);
+        }
+        unassigned = new ConcurrentLinkedQueue<>();
+        int count = 0;
+        for (int left = 1; left <= setSize; left++) {
+            if (offsets[left + 1] > offsets[left]) {
+                unassigned.offer(left);
+                count++;
+            }
+        }
+        pending = new AtomicInteger(count);
+
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> bidUntilAssigned(epsilon));
+            workers[t].start();
+        }
+        for (Thread worker : workers)
+            worker.join();
+    }
+
+    /**
+     *This method is run by every worker thread, it takes unassigned left node from the queue and bids for it
+     * @param epsilon
+     * pre: queue and pending counter should be created for the round
+     * post: returns when no left node is waiting to bid
+     */
+    private void bidUntilAssigned(int epsilon) {
+        while (pending.get() > 0) {
+            Integer left = unassigned.poll();
+            if (left == null)
+                Thread.onSpinWait();
+            else
+                bid(left, epsilon);
+        }
+    }
+
+    /**
+     *This method
+     * 1. finds best and second best right node for left node by value which is benefit minus price
+     * 2. gives up if best value is below the value of staying unassigned which is zero
+     * 3. raises the price of best right node by difference of best and second best value plus epsilon
+     *    using compare and set, if the price changed meanwhile then bid is computed again
+     * 4. becomes the owner of right node and puts the previous owner back to the queue
+     * @param left
+     * @param epsilon
+     * pre: left node should be unassigned
+     * post: left node is assigned or has given up for this round
+     */
+    private void bid(int left, int epsilon) {
+
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int firstRight = graph.getSetSize() + 1;
+        while (true) {
+            int bestRight = -1, bestPrice = 0;
+            int bestValue = Integer.MIN_VALUE, secondValue = 0;
+            for (int k = offsets[left]; k < offsets[left + 1]; k++) {
+                int right = targets[k] - firstRight;
+                int currentPrice = price.get(right);
+                int value = benefit - currentPrice;
+                if (value > bestValue) {
+                    if (bestRight != -1 && right != bestRight)
+                        secondValue = Math.max(secondValue, bestValue);
+                    bestValue = value;
+                    bestRight = right;
+                    bestPrice = currentPrice;
+                } else if (right != bestRight && value > secondValue)
+                    secondValue = value;
+            }
+            if (bestValue < 0) {
+                pending.decrementAndGet();
+                return;
+            }
+            bids.increment();
+            if (!price.compareAndSet(bestRight, bestPrice, bestPrice + bestValue - secondValue + epsilon))
+                continue;
+            int previous = owner.getAndSet(bestRight, left);
+            if (previous == 0)
+                pending.decrementAndGet();
+            else
+                unassigned.offer(previous);
+            return;
+        }
+    }
+
+    /**
+     *This method prints the statistics of last auction
+     * pre: findMaxMatching should be completed
+     * post: prints threads, rounds, bids and augmentations done after auction
+     */
+    public void printStatistics() {
+        System.out.println("auction: " + threads + " threads, " + rounds + " rounds, "
+                + bids.sum() + " bids, " + augmentations + " augmentations after auction");
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * This Class grows a given matching to maximum matching using augmenting paths
+ * it is used to complete the matching found by the approximate or parallel engines
+ * Functionality includes:
+ * 1. advance with dfs from every free left node, right nodes are visited only once in a phase
+ * 2. augment the path when free right node is reached
+ * 3. continue the phases until a phase finds no augmenting path
+ * @author Sayali Kudale
+ */
+public class AugmentingPathSearch {
+
+    /**
+     *This method continues the phases until no augmenting path is available
+     * if a phase does not augment then every visited node is a dead end, so matching is maximum
+     * @param g
+     * @param mate
+     * @return
+     * pre: mate should be a valid matching of g with 0 for unmatched nodes
+     * post: mate becomes maximum matching, returns the number of augmentations done
+     */
+    public static int augmentToMaximum(BipartiteAdjacency g, int[] mate) {
+
+        int setSize = g.getSetSize();
+        int[] visited = new int[g.getNoOfNodes() + 1];
+        int[] nextEdge = new int[setSize + 1];
+        int[] pathLeft = new int[setSize + 1];
+        int total = 0;
+        int phase = 0;
+        int augmented;
+        do {
+            phase++;
+            augmented = 0;
+            for (int root = 1; root <= setSize; root++) {
+                if (mate[root] == 0 && searchPath(g, mate, root, phase, visited, nextEdge, pathLeft))
+                    augmented++;
+            }
+            total += augmented;
+        } while (augmented > 0);
+        return total;
+    }
+
+    /**
+     *This method performs dfs from the given free left node over alternating paths
+     * right nodes already visited in this phase are not visited again
+     * @param g
+     * @param mate
+     * @param root
+     * @param phase stamp used to mark visited right nodes
+     * @param visited
+     * @param nextEdge
+     * @param pathLeft
+     * @return
+     * pre: root should be unmatched
+     * post: returns true and augment the path if free right node is reachable
+     */
+    private static boolean searchPath(BipartiteAdjacency g, int[] mate, int root, int phase,
+                                      int[] visited, int[] nextEdge, int[] pathLeft) {
+
+        int[] offsets = g.getOffsets();
+        int[] targets = g.getTargets();
+        int depth = 0;
+        pathLeft[0] = root;
+        nextEdge[root] = offsets[root];
+        while (depth >= 0) {
+            int left = pathLeft[depth];
+            if (nextEdge[left] == offsets[left + 1]) {
+                depth--;
+                continue;
+            }
+            int right = targets[nextEdge[left]++];
+            if (visited[right] == phase)
+                continue;
+            visited[right] = phase;
+            int matchedLeft = mate[right];
+            if (matchedLeft == 0) {
+                for (int i = depth; i >= 0; i--) {
+                    int previousRight = mate[pathLeft[i]];
+                    mate[pathLeft[i]] = right;
+                    mate[right] = pathLeft[i];
+                    right = previousRight;
+                }
+                return true;
+            }
+            pathLeft[++depth] = matchedLeft;
+            nextEdge[matchedLeft] = offsets[matchedLeft];
+        }
+        return false;
+    }
+}
@@ -0,0 +1,166 @@
+/**
+ * This Class represents the bipartite graph in compressed form for the array based engines
+ * adjacency of every left node is stored as right node ids in one array (CSR)
+ * node ids are same as in the Graph, left set is 1 to setSize and right set is setSize+1 to noOfNodes
+ * Functionality includes:
+ * 1. create the compressed adjacency from edges of graph
+ * 2. print the matching given as mate array in the same format as the exact solver
+ * @author Sayali Kudale
+ */
+public class BipartiteAdjacency {
+
+    private int noOfNodes;
+    private int setSize;
+    private int noOfEdges;
+    private int[] offsets;
+    private int[] targets;
+    private String[] labels;
+
+    /**
+     *constructor to initialise the compressed adjacency from the given arrays
+     * @param setSize
+     * @param offsets adjacency of left node u is targets[offsets[u]] to targets[offsets[u+1]-1]
+     * @param targets right node ids
+     * @param labels labels of nodes, index of the array is node id
+     * pre: offsets should have setSize+2 entries and labels should have noOfNodes+1 entries
+     * post: compressed adjacency object gets initialised
+     */
+    public BipartiteAdjacency(int setSize, int[] offsets, int[] targets, String[] labels) {
+        this.noOfNodes = labels.length - 1;
+        this.setSize = setSize;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.labels = labels;
+        this.noOfEdges = offsets[setSize + 1];
+    }
+
+    /**
+     *This method creates compressed adjacency from the edges between left and right set of the graph
+     * edges from source and to sink are ignored and edge given from right to left is reversed
+     * @param g
+     * @return
+     * pre: source and sink should be added in the graph so that node id is same as index
+     * post: returns the compressed adjacency of the graph
+     */
+    public static BipartiteAdjacency fromGraph(Graph g) {
+
+        int nodes = g.getNoOfNodes();
+        int setSize = g.getSetSize();
+        String[] labels = new String[nodes + 1];
+        int[] offsets = new int[setSize + 2];
+        for (int i = 1; i <= nodes; i++) {
+            labels[i] = g.getNodeFromList(i).getLabel();
+            for (Edge e : g.getNodeFromGraph(i)) {
+                int dest = e.getDest().getId();
+                if (dest >= 1 && dest <= nodes)
+                    offsets[Math.min(i, dest) + 1]++;
+            }
+        }
+        for (int i = 0; i <= setSize; i++)
+            offsets[i + 1] += offsets[i];
+
+        int[] next = offsets.clone();
+        int[] targets = new int[offsets[setSize + 1]];
+        for (int i = 1; i <= nodes; i++) {
+            for (Edge e : g.getNodeFromGraph(i)) {
+                int dest = e.getDest().getId();
+                if (dest >= 1 && dest <= nodes)
+                    targets[next[Math.min(i, dest)]++] = Math.max(i, dest);
+            }
+        }
+        return new BipartiteAdjacency(setSize, offsets, targets, labels);
+    }
+
+    /**
+     * accessor for noOfNodes
+     * pre: none
+     * post: returns value of noOfNodes */
+    public int getNoOfNodes() {
+        return noOfNodes;
+    }
+
+    /**
+     * accessor for setSize
+     * pre: none
+     * post: returns value of setSize */
+    public int getSetSize() {
+        return setSize;
+    }
+
+    /**
+     * accessor for noOfEdges
+     * pre: none
+     * post: returns value of noOfEdges */
+    public int getNoOfEdges() {
+        return noOfEdges;
+    }
+
+    /**
+     * accessor for offsets, indexed by left node id
+     * pre: none
+     * post: returns offsets array */
+    public int[] getOffsets() {
+        return offsets;
+    }
+
+    /**
+     * accessor for targets
+     * pre: none
+     * post: returns array of right node ids */
+    public int[] getTargets() {
+        return targets;
+    }
+
+    /**
+     * accessor for labels, index of the array is node id
+     * pre: none
+     * post: returns labels array */
+    public String[] getLabels() {
+        return labels;
+    }
+
+    /**
+     *This method counts the matched pairs in the given mate array
+     * @param mate
+     * @return
+     * pre: mate should have noOfNodes+1 entries and 0 for unmatched nodes
+     * post: returns the size of matching
+     */
+    public int matchingSize(int[] mate) {
+        int count = 0;
+        for (int i = setSize + 1; i <= noOfNodes; i++) {
+            if (mate[i] != 0)
+                count++;
+        }
+        return count;
+    }
+
+    /**
+     *This method iterates over the right set of nodes and prints the matching edges information
+     * @param mate
+     * pre: mate should have noOfNodes+1 entries and 0 for unmatched nodes
+     * post: prints the matching in bipartite graph in required format
+     */
+    public void printMatching(int[] mate) {
+        printMatching(labels, setSize, mate);
+    }
+
+    /**
+     *This method iterates over the right set of nodes and prints the matching edges information
+     * @param labels labels of nodes, index of the array is node id
+     * @param setSize
+     * @param mate
+     * pre: mate should have same length as labels and 0 for unmatched nodes
+     * post: prints the matching in bipartite graph in required format
+     */
+    public static void printMatching(String[] labels, int setSize, int[] mate) {
+        int count = 0;
+        for (int i = setSize + 1; i < labels.length; i++) {
+            if (mate[i] != 0) {
+                System.out.println(labels[mate[i]] + " / " + labels[i]);
+                count++;
+            }
+        }
+        System.out.println(count + " total matches");
+    }
+}
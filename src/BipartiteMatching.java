@@ -6,12 +6,33 @@
  * 3. exception handling
  * 4. create nodes and initial residue graph from given inputs
  * 5. pass graph to the method to compute result
+ * Usage: java BipartiteMatching [options] [inputFile]
+ * options:
+ *  -stream        find approximate matching by streaming the edges instead of loading the graph
+ *  -passes=N      number of passes over the edges in stream mode (default 1)
+ *  -streamEpsilon=E  stream mode stops when matching is at least 1-E of maximum (default 0.1)
+ *  -external      find maximum matching with the adjacency kept on disk in CSR blocks
+ *  -blockNodes=N  number of left nodes in one CSR block in external mode (default 4096)
+ *  -poolBlocks=N  number of CSR blocks kept in memory in external mode (default 64)
+ *  -auction       find maximum matching with the parallel auction algorithm
+ *  -parallel      find maximum matching with parallel augmenting path search from all free left nodes
+ *  -threads=N     number of threads for the parallel engines (default number of processors)
+ *  -epsilon=N     initial bid increment of auction, scaled down by four every round until one (default 1)
+ *  -validate      compare the size of parallel engine matching with Dinics algorithm
+ *  -reorder=S     renumber nodes for locality before creating residual graph, S is bfs, degree or rcm
+ *  -kernel        match degree one and twin nodes first and solve only the remaining kernel
+ *  -cover         also print vertex cover, independent set and Dulmage Mendelsohn decomposition,
+ *                 only with the default Dinics solver
+ *  -gomoryhu      build Gomory Hu tree of the input graph and print min cut of every tree edge instead of
+ *                 matching, can not be used with -kernel, -stream, -external, -auction, -parallel or -validate
+ *  -mincut=A,B    with -gomoryhu, print min cut between nodes with labels A and B, can be given many times
  * @author Sayali Kudale
  */
 import java.io.BufferedReader;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
+import java.util.ArrayList;
 
 public class BipartiteMatching {
 
@@ -21,17 +42,104 @@ public class BipartiteMatching {
      * 2. prepare the residual graph from given input
      * 3. print the error message if any
      * 4. Pass the graph to the method to find maximum bipartite matching
-     * @param args
+     * 5. if stream or external option is given then pass input file to that solver instead
+     * @param args options and input file name
      * pre: none
      * post: print error to the console if input is not valid otherwise pass graph to the MaximumBipartiteMatching class
      */
     public static void main(String args[]){
 
-        final String inputFileName = "program3data.txt";
+        String inputFileName = "program3data.txt";
+        boolean streamMode = false, externalMode = false, printDecomposition = false;
+        boolean auctionMode = false, parallelMode = false, validate = false, gomoryHu = false;
+        ArrayList<String[]> cutQueries = new ArrayList<>();
+        int passes = 1, blockNodes = 4096, poolBlocks = 64, epsilon = 1;
+        int threads = Runtime.getRuntime().availableProcessors();
+        double streamEpsilon = 0.1;
+        boolean streamEpsilonGiven = false;
+        VertexReordering reordering = null;
+        Kernelization kernelization = null;
         FileReader fileReader = null;
         BufferedReader bufferedReader = null;
         int numberOfRecords = 0,numberOfEdges=0;
         try {
+            for (String arg : args) {
+                if (arg.equals("-stream"))
+                    streamMode = true;
+                else if (arg.startsWith("-passes="))
+                    passes = Integer.parseInt(arg.substring("-passes=".length()));
+                else if (arg.equals("-auction"))
+                    auctionMode = true;
+                else if (arg.equals("-parallel"))
+                    parallelMode = true;
+                else if (arg.startsWith("-threads="))
+                    threads = Integer.parseInt(arg.substring("-threads=".length()));
+                else if (arg.startsWith("-streamEpsilon=")) {
+                    streamEpsilon = Double.parseDouble(arg.substring("-streamEpsilon=".length()));
+                    streamEpsilonGiven = true;
+                }
+                else if (arg.startsWith("-epsilon="))
+                    epsilon = Integer.parseInt(arg.substring("-epsilon=".length()));
+                else if (arg.equals("-validate"))
+                    validate = true;
+                else if (arg.startsWith("-reorder="))
+                    reordering = new VertexReordering(arg.substring("-reorder=".length()));
+                else if (arg.equals("-kernel"))
+                    kernelization = new Kernelization();
+                else if (arg.equals("-cover"))
+                    printDecomposition = true;
+                else if (arg.equals("-gomoryhu"))
+                    gomoryHu = true;
+                else if (arg.startsWith("-mincut=")) {
+                    String[] pair = arg.substring("-mincut=".length()).split(",");
+                    if (pair.length != 2)
+                        throw new IllegalArgumentException("-mincut needs two labels separated by comma");
+                    cutQueries.add(pair);
+                }
+                else if (arg.equals("-external"))
+                    externalMode = true;
+                else if (arg.startsWith("-blockNodes="))
+                    blockNodes = Integer.parseInt(arg.substring("-blockNodes=".length()));
+                else if (arg.startsWith("-poolBlocks="))
+                    poolBlocks = Integer.parseInt(arg.substring("-poolBlocks=".length()));
+                else if (arg.startsWith("-"))
+                    throw new IllegalArgumentException("Unknown option " + arg);
+                else
+                    inputFileName = arg;
+            }
+            if (streamEpsilonGiven && !streamMode)
+                throw new IllegalArgumentException("-streamEpsilon needs -stream");
+            if (printDecomposition && kernelization != null)
+                throw new IllegalArgumentException("-cover can not be used with -kernel");
+            if (printDecomposition && (auctionMode || parallelMode || streamMode || externalMode || gomoryHu))
+                throw new IllegalArgumentException("-cover needs the residual graph of Dinics algorithm, "
+                        + "it can not be used with -auction, -parallel, -stream, -external or -gomoryhu");
+            if (gomoryHu && (kernelization != null || streamMode || externalMode || auctionMode || parallelMode
+                    || validate))
+                throw new IllegalArgumentException("-gomoryhu does not find a matching, it can not be used with "
+                        + "-kernel, -stream, -external, -auction, -parallel or -validate");
+            if (!cutQueries.isEmpty() && !gomoryHu)
+                throw new IllegalArgumentException("-mincut needs -gomoryhu");
+
+            if (streamMode) {
+                StreamingBipartiteMatching streaming = new StreamingBipartiteMatching(passes, streamEpsilon);
+                streaming.findMatching(inputFileName);
+                return;
+            }
+
+            if (externalMode) {
+                ExternalMemoryGraph externalGraph = new ExternalMemoryGraph(blockNodes, poolBlocks);
+                try {
+                    externalGraph.build(inputFileName);
+                    new ExternalMemoryMatching().findMaxMatching(externalGraph);
+                } catch (ExternalMemoryGraph.TemporaryFileException tfe) {
+                    System.err.println("Error in external memory files!! \n" + tfe.getMessage());
+                } finally {
+                    externalGraph.close();
+                }
+                return;
+            }
+
             fileReader = new FileReader(inputFileName);
             bufferedReader = new BufferedReader(fileReader);
             numberOfRecords = Integer.parseInt(bufferedReader.readLine().trim());
@@ -59,13 +167,68 @@ public class BipartiteMatching {
 
                 createGraph(bufferedReader,numberOfEdges,graph);
 
-                createSourceSink(graph,numberOfRecords);
+                if (reordering != null)
+                    graph = reordering.reorder(graph);
+
+                if (gomoryHu) {
+                    GomoryHuTree tree = new GomoryHuTree(threads);
+                    tree.build(graph);
+                    tree.printTree();
+                    for (String[] pair : cutQueries)
+                        tree.printMinCut(pair[0], pair[1]);
+                    tree.printStatistics();
+                    if (reordering != null)
+                        reordering.printStatistics();
+                    return;
+                }
+
+                if (kernelization != null) {
+                    graph = kernelization.reduce(graph);
+                    if (!kernelization.hasKernel()) {
+                        kernelization.printMatching(kernelization.lift(null));
+                        kernelization.printStatistics(0);
+                        return;
+                    }
+                }
+
+                createSourceSink(graph,graph.getNoOfNodes());
 
                 createInitialResidue(graph);
 
                 MaximumBipartiteMatching maxBPT=new MaximumBipartiteMatching();
 
-                maxBPT.findMaxMatching(graph);
+                long solveStart = System.nanoTime();
+                if (auctionMode) {
+                    BipartiteAdjacency adjacency = BipartiteAdjacency.fromGraph(graph);
+                    AuctionBipartiteMatching auction = new AuctionBipartiteMatching(threads, epsilon);
+                    int[] mate = auction.findMaxMatching(adjacency);
+                    long solveTime = System.nanoTime() - solveStart;
+                    printMatching(adjacency, kernelization, mate, solveTime);
+                    auction.printStatistics();
+                    if (validate)
+                        validateWithDinic(maxBPT, graph, adjacency.matchingSize(mate));
+                } else if (parallelMode) {
+                    BipartiteAdjacency adjacency = BipartiteAdjacency.fromGraph(graph);
+                    ParallelAugmentingPathMatching parallel = new ParallelAugmentingPathMatching(threads);
+                    int[] mate = parallel.findMaxMatching(adjacency);
+                    long solveTime = System.nanoTime() - solveStart;
+                    printMatching(adjacency, kernelization, mate, solveTime);
+                    parallel.printStatistics();
+                    if (validate)
+                        validateWithDinic(maxBPT, graph, adjacency.matchingSize(mate));
+                } else if (kernelization != null) {
+                    maxBPT.computeMaxMatching(graph);
+                    long solveTime = System.nanoTime() - solveStart;
+                    printMatching(null, kernelization, maxBPT.getMatching(), solveTime);
+                } else {
+                    maxBPT.findMaxMatching(graph);
+
+                    if (printDecomposition)
+                        maxBPT.printGraphDecomposition();
+                }
+
+                if (reordering != null)
+                    reordering.printStatistics();
             }
 
 
@@ -81,6 +244,8 @@ public class BipartiteMatching {
             System.err.println("Input data is Invalid: " + iobe.getMessage());
         } catch (IllegalArgumentException iae) {
             System.err.println("Input data is Invalid: " + iae.getMessage());
+        } catch (InterruptedException ie) {
+            System.err.println("Matching interrupted: " + ie.getMessage());
         } finally {
             try {
                 if (bufferedReader != null && fileReader != null) {
@@ -93,6 +258,43 @@ public class BipartiteMatching {
         }
     }
 
+    /**
+     *This method prints the matching found by an engine, if graph was reduced then
+     * matching of kernel is lifted to the input graph before printing
+     * @param adjacency compressed adjacency of solved graph, may be null if kernelization is given
+     * @param kernelization may be null if graph was not reduced
+     * @param mate
+     * @param solveTime
+     * pre: mate should be the matching of solved graph
+     * post: prints the matching in required format and reduction statistics
+     */
+    private static void printMatching(BipartiteAdjacency adjacency, Kernelization kernelization,
+                                      int[] mate, long solveTime){
+        if (kernelization == null) {
+            adjacency.printMatching(mate);
+        } else {
+            kernelization.printMatching(kernelization.lift(mate));
+            kernelization.printStatistics(solveTime);
+        }
+    }
+
+    /**
+     *This method runs Dinics algorithm on the same graph and compares the matching size
+     * @param maxBPT
+     * @param g
+     * @param matchingCount size of matching found by the other engine
+     * pre: initial residue graph should be created and not used by Dinics algorithm before
+     * post: prints whether both matching sizes are same
+     */
+    private static void validateWithDinic(MaximumBipartiteMatching maxBPT, Graph g, int matchingCount){
+        maxBPT.computeMaxMatching(g);
+        int dinicCount= maxBPT.getMatchingCount();
+        if (dinicCount == matchingCount)
+            System.out.println("validated: Dinic matching size is also " + dinicCount);
+        else
+            System.out.println("validation failed: Dinic matching size is " + dinicCount);
+    }
+
     /**
      * This method
      * 1. reads input from the given file and create node objects
@@ -0,0 +1,165 @@
+/**
+ * This Class reads the input file one edge at a time without creating the graph
+ * Functionality includes:
+ * 1. read and validate nodes information from the text or binary input file
+ * 2. read the edges one by one with left node first
+ * Binary input file (name ends with .bin) is written with DataOutputStream as:
+ * number of nodes, node labels (writeUTF), number of edges, and pairs of node ids
+ * @author Sayali Kudale
+ */
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileReader;
+import java.io.IOException;
+
+public class EdgeStream {
+
+    private int numberOfNodes;
+    private int setSize;
+    private int numberOfEdges;
+    private int edgesRemaining;
+    private String[] labels;
+    private BufferedReader textReader;
+    private DataInputStream binaryReader;
+
+    /**
+     *constructor to open the input file and read the nodes information
+     * @param fileName
+     * @param keepLabels if true node labels are stored otherwise they are skipped
+     * @throws IOException
+     * pre: input file should be present in the text or binary format
+     * post: stream is positioned at the first edge
+     */
+    public EdgeStream(String fileName, boolean keepLabels) throws IOException {
+
+        if (fileName.endsWith(".bin")) {
+            binaryReader = new DataInputStream(new BufferedInputStream(new FileInputStream(fileName)));
+            setNumberOfNodes(binaryReader.readInt(), keepLabels);
+            for (int i = 1; i <= numberOfNodes; i++) {
+                String label = binaryReader.readUTF();
+                if (keepLabels)
+                    labels[i] = label;
+            }
+            numberOfEdges = binaryReader.readInt();
+        } else {
+            textReader = new BufferedReader(new FileReader(fileName));
+            setNumberOfNodes(Integer.parseInt(textReader.readLine().trim()), keepLabels);
+            for (int i = 1; i <= numberOfNodes; i++) {
+                String label = textReader.readLine();
+                if (keepLabels)
+                    labels[i] = label;
+            }
+            numberOfEdges = Integer.parseInt(textReader.readLine().trim());
+        }
+        if (numberOfEdges == 0)
+            throw new IllegalArgumentException("Edges information is missing");
+        edgesRemaining = numberOfEdges;
+    }
+
+    /**
+     * This method validates the number of nodes in the same way as the exact solver
+     * @param nodes
+     * @param keepLabels
+     * pre: none
+     * post: throws IllegalArgumentException if number of nodes is not valid
+     */
+    private void setNumberOfNodes(int nodes, boolean keepLabels) {
+        if (nodes == 0)
+            throw new IllegalArgumentException("File is empty");
+        if (nodes == 1)
+            throw new IllegalArgumentException("Number of nodes should be " +
+                    "at least two to find matching");
+        this.numberOfNodes = nodes;
+        this.setSize = nodes / 2;
+        if (keepLabels)
+            labels = new String[nodes + 1];
+    }
+
+    /**
+     * accessor for numberOfNodes
+     * pre: none
+     * post: returns value of numberOfNodes */
+    public int getNumberOfNodes() {
+        return numberOfNodes;
+    }
+
+    /**
+     * accessor for setSize
+     * pre: none
+     * post: returns value of setSize */
+    public int getSetSize() {
+        return setSize;
+    }
+
+    /**
+     * accessor for numberOfEdges
+     * pre: none
+     * post: returns value of numberOfEdges */
+    public int getNumberOfEdges() {
+        return numberOfEdges;
+    }
+
+    /**
+     * accessor for labels, index of the array is node id
+     * pre: stream should be opened with keepLabels
+     * post: returns the labels array or null if labels are not kept */
+    public String[] getLabels() {
+        return labels;
+    }
+
+    /**
+     *This method reads next edge from the stream
+     * if the edge is given from right set to left set then it is reversed
+     * @param edge array of size two to store left and right node ids
+     * @return
+     * @throws IOException
+     * pre: stream should be opened
+     * post: returns false if no more edges are present
+     */
+    public boolean readEdge(int[] edge) throws IOException {
+
+        if (edgesRemaining == 0)
+            return false;
+        edgesRemaining--;
+        int source, dest;
+        if (binaryReader != null) {
+            try {
+                source = binaryReader.readInt();
+                dest = binaryReader.readInt();
+            } catch (EOFException eofe) {
+                throw new EOFException("Binary input ends with " + (edgesRemaining + 1) + " edges missing");
+            }
+        } else {
+            String[] arr = textReader.readLine().trim().split("\\s+");
+            source = Integer.parseInt(arr[0]);
+            dest = Integer.parseInt(arr[1]);
+        }
+        if (source < 1 || source > numberOfNodes || dest < 1 || dest > numberOfNodes)
+            throw new IndexOutOfBoundsException("Node id out of range in edge " + source + " " + dest);
+        edge[0] = Math.min(source, dest);
+        edge[1] = Math.max(source, dest);
+        if (edge[0] > setSize || edge[1] <= setSize)
+            throw new IllegalArgumentException("Edge " + source + " " + dest + " is not between left and right set");
+        return true;
+    }
+
+    /**
+     * This method closes the opened stream
+     * @throws IOException
+     * pre: none
+     * post: text or binary stream gets closed
+     */
+    public void close() throws IOException {
+        if (textReader != null) {
+            textReader.close();
+            textReader = null;
+        }
+        if (binaryReader != null) {
+            binaryReader.close();
+            binaryReader = null;
+        }
+    }
+}
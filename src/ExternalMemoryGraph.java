@@ -0,0 +1,409 @@
+/**
+ * This Class keeps the adjacency of left set nodes on disk in CSR blocks
+ * Functionality includes:
+ * 1. partition the edges by left node into run files while reading the input, edges are buffered in a
+ *    chunk of bounded size and every flush appends to the run files one at a time so that only one
+ *    run file is open however many partitions there are
+ * 2. sort each partition and write it as a CSR block (offsets followed by right node ids) using FileChannel
+ * 3. page the blocks in through a bounded LRU buffer pool while traversing
+ * 4. count the bytes written and read so that solver can report the I/O of each phase
+ * Only the per block file positions are kept in memory, edges are always read from disk
+ * failures of the temporary files are thrown as TemporaryFileException so that they are not reported as
+ * errors of the input file
+ * @author Sayali Kudale
+ */
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class ExternalMemoryGraph {
+
+    private static final int chunkEdges = 1 << 18;	//edges buffered in memory before they are appended to run files
+    private int numberOfNodes;
+    private int setSize;
+    private int blockNodes;
+    private int poolBlocks;
+    private long[] blockPosition;
+    private String[] labels;
+    private File directory;
+    private File csrFile;
+    private FileChannel channel;
+    private LinkedHashMap<Integer, Block> bufferPool;
+    private long bytesWritten;
+    private long bytesRead;
+    private long blockReads;
+
+    /**
+     * This Class represents failure to create, write or read the temporary run and CSR files
+     */
+    public static class TemporaryFileException extends IOException {
+
+        private static final long serialVersionUID = 1L;
+
+        private TemporaryFileException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    /**
+     * This Class represents one CSR block which is loaded in the buffer pool
+     * offsets are relative to the first left node of the block
+     */
+    private static class Block {
+        private int[] offsets;
+        private int[] targets;
+    }
+
+    /**
+     *constructor to initialise external memory graph object
+     * @param blockNodes number of left nodes stored in one block
+     * @param poolBlocks maximum number of blocks kept in memory
+     * pre: none
+     * post: external memory graph object gets initialised
+     */
+    public ExternalMemoryGraph(int blockNodes, int poolBlocks) {
+        if (blockNodes < 1 || poolBlocks < 1)
+            throw new IllegalArgumentException("Block size and buffer pool size should be at least one");
+        this.blockNodes = blockNodes;
+        this.poolBlocks = poolBlocks;
+    }
+
+    /**
+     *This method
+     * 1. reads the edges from input file in chunks and appends each edge to the run file of its partition
+     * 2. converts every run file to the CSR block in the single CSR file
+     * 3. opens the CSR file channel for reading
+     * @param fileName
+     * @throws IOException
+     * pre: input file should be present in the text or binary format
+     * post: CSR blocks gets created on disk in a temporary directory
+     */
+    public void build(String fileName) throws IOException {
+
+        EdgeStream stream = new EdgeStream(fileName, true);
+        numberOfNodes = stream.getNumberOfNodes();
+        setSize = stream.getSetSize();
+        labels = stream.getLabels();
+        int numberOfBlocks = Math.max(1, (setSize + blockNodes - 1) / blockNodes);
+        try {
+            directory = Files.createTempDirectory("networkflow").toFile();
+        } catch (IOException ioe) {
+            stream.close();
+            throw new TemporaryFileException("Can not create temporary directory: " + ioe, ioe);
+        }
+
+        int[] partitionEdges = new int[numberOfBlocks];
+        int[] chunk = new int[2 * chunkEdges];
+        int buffered = 0;
+        try {
+            int[] edge = new int[2];
+            while (stream.readEdge(edge)) {
+                chunk[2 * buffered] = edge[0];
+                chunk[2 * buffered + 1] = edge[1];
+                if (++buffered == chunkEdges) {
+                    flushChunk(chunk, buffered, partitionEdges);
+                    buffered = 0;
+                }
+            }
+            flushChunk(chunk, buffered, partitionEdges);
+        } finally {
+            stream.close();
+        }
+
+        csrFile = new File(directory, "adjacency.csr");
+        blockPosition = new long[numberOfBlocks + 1];
+        try (FileChannel out = openChannel(csrFile, "rw")) {
+            long position = 0;
+            for (int block = 0; block < numberOfBlocks; block++) {
+                blockPosition[block] = position;
+                position += writeBlock(out, block, partitionEdges[block], position);
+            }
+            blockPosition[numberOfBlocks] = position;
+        } catch (TemporaryFileException tfe) {
+            throw tfe;
+        } catch (IOException ioe) {
+            throw new TemporaryFileException("Can not write " + csrFile + ": " + ioe, ioe);
+        }
+
+        channel = openChannel(csrFile, "r");
+        bufferPool = new LinkedHashMap<Integer, Block>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Block> eldest) {
+                return size() > poolBlocks;
+            }
+        };
+    }
+
+    /**
+     *This method groups the buffered edges by partition with counting sort and appends every group to
+     * the run file of its partition, run file is closed before next one is opened
+     * @param chunk left and right node of buffered edges one after other
+     * @param edges number of buffered edges
+     * @param partitionEdges number of edges written to each run file so far
+     * @throws TemporaryFileException
+     * pre: temporary directory should be created
+     * post: buffered edges are appended to run files and partition counts are updated
+     */
+    private void flushChunk(int[] chunk, int edges, int[] partitionEdges) throws TemporaryFileException {
+
+        if (edges == 0)
+            return;
+        int numberOfBlocks = partitionEdges.length;
+        int[] start = new int[numberOfBlocks + 1];
+        for (int i = 0; i < edges; i++)
+            start[(chunk[2 * i] - 1) / blockNodes + 1]++;
+        for (int block = 0; block < numberOfBlocks; block++)
+            start[block + 1] += start[block];
+        int[] next = start.clone();
+        int[] grouped = new int[2 * edges];
+        for (int i = 0; i < edges; i++) {
+            int position = next[(chunk[2 * i] - 1) / blockNodes]++;
+            grouped[2 * position] = chunk[2 * i];
+            grouped[2 * position + 1] = chunk[2 * i + 1];
+        }
+
+        for (int block = 0; block < numberOfBlocks; block++) {
+            if (start[block] == start[block + 1])
+                continue;
+            try (DataOutputStream run = new DataOutputStream(new BufferedOutputStream(
+                    new FileOutputStream(runFile(block), true)))) {
+                for (int i = 2 * start[block]; i < 2 * start[block + 1]; i++)
+                    run.writeInt(grouped[i]);
+            } catch (IOException ioe) {
+                throw new TemporaryFileException("Can not write run file " + runFile(block) + ": " + ioe, ioe);
+            }
+            partitionEdges[block] += start[block + 1] - start[block];
+            bytesWritten += 8L * (start[block + 1] - start[block]);
+        }
+    }
+
+    /**
+     *This method reads the run file of a partition, sorts the edges by left node
+     * using counting sort and writes the CSR block at given position
+     * @param out
+     * @param block
+     * @param edges number of edges in the run file
+     * @param position
+     * @return
+     * @throws IOException
+     * pre: run file of the partition should be closed
+     * post: returns the number of bytes written for the block and run file gets deleted
+     */
+    private long writeBlock(FileChannel out, int block, int edges, long position) throws IOException {
+
+        int firstNode = block * blockNodes + 1;
+        int nodesInBlock = Math.min(blockNodes, setSize - firstNode + 1);
+        int[] offsets = new int[nodesInBlock + 1];
+        int[] sources = new int[edges];
+        int[] targets = new int[edges];
+
+        File run = runFile(block);
+        if (edges > 0) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(run)))) {
+                for (int i = 0; i < edges; i++) {
+                    sources[i] = in.readInt() - firstNode;
+                    targets[i] = in.readInt();
+                    offsets[sources[i] + 1]++;
+                }
+            }
+            bytesRead += 8L * edges;
+            run.delete();
+        }
+        for (int i = 0; i < nodesInBlock; i++)
+            offsets[i + 1] += offsets[i];
+
+        int[] next = offsets.clone();
+        int[] sorted = new int[edges];
+        for (int i = 0; i < edges; i++)
+            sorted[next[sources[i]]++] = targets[i];
+
+        ByteBuffer buffer = ByteBuffer.allocate(4 * (offsets.length + edges));
+        buffer.asIntBuffer().put(offsets).put(sorted);
+        long written = 0;
+        while (buffer.hasRemaining())
+            written += out.write(buffer, position + written);
+        bytesWritten += written;
+        return written;
+    }
+
+    /**
+     * This method opens channel of the temporary CSR file
+     * @param file
+     * @param mode
+     * @return
+     * @throws IOException
+     * pre: temporary directory should be created
+     * post: returns the opened channel
+     */
+    private FileChannel openChannel(File file, String mode) throws IOException {
+        try {
+            return new RandomAccessFile(file, mode).getChannel();
+        } catch (IOException ioe) {
+            throw new TemporaryFileException("Can not open " + file + ": " + ioe, ioe);
+        }
+    }
+
+    /**
+     * This method returns the run file for given partition
+     * @param block
+     * @return
+     * pre: temporary directory should be created
+     * post: returns the run file object
+     */
+    private File runFile(int block) {
+        return new File(directory, "run" + block + ".bin");
+    }
+
+    /**
+     *This method returns the block of given left node from buffer pool
+     * if block is not present then it is read from disk and least recently used block gets evicted
+     * @param left
+     * @return
+     * @throws IOException
+     * pre: CSR blocks should be created
+     * post: returns the block containing adjacency of given left node
+     */
+    private Block getBlock(int left) throws IOException {
+
+        int blockIndex = (left - 1) / blockNodes;
+        Block block = bufferPool.get(blockIndex);
+        if (block != null)
+            return block;
+
+        long position = blockPosition[blockIndex];
+        int length = (int) (blockPosition[blockIndex + 1] - position);
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        try {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0)
+                    throw new IOException("Unexpected end of adjacency file");
+            }
+        } catch (IOException ioe) {
+            throw new TemporaryFileException("Can not read " + csrFile + ": " + ioe, ioe);
+        }
+        buffer.flip();
+        bytesRead += length;
+        blockReads++;
+
+        int firstNode = blockIndex * blockNodes + 1;
+        int nodesInBlock = Math.min(blockNodes, setSize - firstNode + 1);
+        IntBuffer ints = buffer.asIntBuffer();
+        block = new Block();
+        block.offsets = new int[nodesInBlock + 1];
+        ints.get(block.offsets);
+        block.targets = new int[ints.remaining()];
+        ints.get(block.targets);
+        bufferPool.put(blockIndex, block);
+        return block;
+    }
+
+    /**
+     * This method returns the number of right nodes adjacent to given left node
+     * @param left
+     * @return
+     * @throws IOException
+     * pre: CSR blocks should be created and left should be in left set
+     * post: returns the degree of left node
+     */
+    public int degree(int left) throws IOException {
+        Block block = getBlock(left);
+        int index = (left - 1) % blockNodes;
+        return block.offsets[index + 1] - block.offsets[index];
+    }
+
+    /**
+     * This method returns the k th right node adjacent to given left node
+     * @param left
+     * @param k
+     * @return
+     * @throws IOException
+     * pre: CSR blocks should be created and k should be less than degree of left node
+     * post: returns the id of right node
+     */
+    public int neighbour(int left, int k) throws IOException {
+        Block block = getBlock(left);
+        return block.targets[block.offsets[(left - 1) % blockNodes] + k];
+    }
+
+    /**
+     * accessor for numberOfNodes
+     * pre: graph should be built
+     * post: returns value of numberOfNodes */
+    public int getNumberOfNodes() {
+        return numberOfNodes;
+    }
+
+    /**
+     * accessor for setSize
+     * pre: graph should be built
+     * post: returns value of setSize */
+    public int getSetSize() {
+        return setSize;
+    }
+
+    /**
+     * accessor for labels, index of the array is node id
+     * pre: graph should be built
+     * post: returns the labels array */
+    public String[] getLabels() {
+        return labels;
+    }
+
+    /**
+     * accessor for bytesWritten
+     * pre: none
+     * post: returns number of bytes written to the disk */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * accessor for bytesRead
+     * pre: none
+     * post: returns number of bytes read from the disk */
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    /**
+     * accessor for blockReads
+     * pre: none
+     * post: returns number of blocks read from the disk */
+    public long getBlockReads() {
+        return blockReads;
+    }
+
+    /**
+     * This method closes the CSR file channel and deletes the temporary files
+     * @throws IOException
+     * pre: none
+     * post: temporary directory gets deleted
+     */
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+        if (directory != null) {
+            File[] files = directory.listFiles();
+            if (files != null) {
+                for (File file : files)
+                    file.delete();
+            }
+            directory.delete();
+            directory = null;
+        }
+    }
+}
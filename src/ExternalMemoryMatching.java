@@ -0,0 +1,199 @@
+/**
+ * This Class implements Dinics algorithm on the external memory graph to find maximum bipartite matching
+ * On the unit capacity bipartite network level graph and blocking flow are represented by
+ * node levels and mate arrays, so only the per node state is kept in memory
+ * Functionality includes:
+ * 1. creating levels of left nodes with bfs, frontier is sorted so blocks are read in file order
+ * 2. advancing and retreating with dfs from the free left nodes in id order
+ * 3. augment the path by updating the mates
+ * 4. report bytes and blocks read from disk for bfs and dfs of every phase
+ * 5. determine the maximum bipartite matching and print the output
+ * @author Sayali Kudale
+ */
+import java.io.IOException;
+import java.util.Arrays;
+
+public class ExternalMemoryMatching {
+
+    private static final int noMate = 0;	//node ids start from 1 so 0 is used as unmatched marker
+    private static final int unreachable = Integer.MAX_VALUE;
+    private ExternalMemoryGraph graph;
+    private int setSize;
+    private int[] mate;
+    private int[] level;
+    private int[] nextEdge;
+    private int freeLevel;
+
+    /**
+     *This method
+     * 1. stores the external memory graph in local variable
+     * 2. continue the phases until no augmenting path is available
+     * 3. after termination give call to method to print output
+     * @param graph
+     * pre: external memory graph should be built
+     * post: print the bipartite matching and I/O of every phase
+     */
+    public void findMaxMatching(ExternalMemoryGraph graph) throws IOException {
+
+        this.graph = graph;
+        this.setSize = graph.getSetSize();
+        int numberOfNodes = graph.getNumberOfNodes();
+        mate = new int[numberOfNodes + 1];
+        level = new int[setSize + 1];
+        nextEdge = new int[setSize + 1];
+
+        System.out.println("build: " + graph.getBytesWritten() + " bytes written, "
+                + graph.getBytesRead() + " bytes read");
+        int matchingCount = 0;
+        int phase = 1;
+        while (true) {
+            long bytesBefore = graph.getBytesRead(), blocksBefore = graph.getBlockReads();
+            boolean pathAvailable = createLevels();
+            long bfsBytes = graph.getBytesRead() - bytesBefore, bfsBlocks = graph.getBlockReads() - blocksBefore;
+            if (!pathAvailable) {
+                System.out.println("phase " + phase + " bfs: " + bfsBytes + " bytes, " + bfsBlocks + " blocks");
+                break;
+            }
+
+            bytesBefore = graph.getBytesRead();
+            blocksBefore = graph.getBlockReads();
+            int augmented = augmentPhase();
+            matchingCount += augmented;
+            System.out.println("phase " + phase + " bfs: " + bfsBytes + " bytes, " + bfsBlocks + " blocks"
+                    + ", dfs: " + (graph.getBytesRead() - bytesBefore) + " bytes, "
+                    + (graph.getBlockReads() - blocksBefore) + " blocks, " + augmented + " paths");
+            phase++;
+        }
+        printBipartiteMatching(matchingCount);
+    }
+
+    /**
+     *This method performs bfs layer by layer from the free left nodes
+     * frontier of every layer is sorted by node id so that CSR blocks are read sequentially
+     * @return
+     * @throws IOException
+     * pre: mate array should be created
+     * post: levels of left nodes gets assigned, returns true if free right node is reachable
+     */
+    private boolean createLevels() throws IOException {
+
+        int[] frontier = new int[setSize];
+        int frontierSize = 0;
+        for (int left = 1; left <= setSize; left++) {
+            if (mate[left] == noMate) {
+                level[left] = 0;
+                frontier[frontierSize++] = left;
+            } else
+                level[left] = unreachable;
+        }
+
+        int[] next = new int[setSize];
+        int depth = 0;
+        boolean found = false;
+        while (frontierSize > 0 && !found) {
+            int nextSize = 0;
+            for (int i = 0; i < frontierSize; i++) {
+                int left = frontier[i];
+                int degree = graph.degree(left);
+                for (int k = 0; k < degree; k++) {
+                    int matchedLeft = mate[graph.neighbour(left, k)];
+                    if (matchedLeft == noMate)
+                        found = true;
+                    else if (level[matchedLeft] == unreachable) {
+                        level[matchedLeft] = depth + 1;
+                        next[nextSize++] = matchedLeft;
+                    }
+                }
+            }
+            if (!found) {
+                Arrays.sort(next, 0, nextSize);
+                int[] swap = frontier;
+                frontier = next;
+                next = swap;
+                frontierSize = nextSize;
+                depth++;
+            }
+        }
+        freeLevel = depth;
+        return found;
+    }
+
+    /**
+     *This method advance from every free left node in id order and augment the path when
+     * free right node is reached at the last level, retreat sets level of dead end node as unreachable
+     * @return
+     * @throws IOException
+     * pre: levels should be created for this phase
+     * post: returns the number of augmenting paths found in this phase
+     */
+    private int augmentPhase() throws IOException {
+
+        Arrays.fill(nextEdge, 0);
+        int[] pathLeft = new int[freeLevel + 1];
+        int[] pathRight = new int[freeLevel + 1];
+        int augmented = 0;
+
+        for (int root = 1; root <= setSize; root++) {
+            if (mate[root] != noMate)
+                continue;
+            int depth = 0;
+            pathLeft[0] = root;
+            while (depth >= 0) {
+                int left = pathLeft[depth];
+                if (nextEdge[left] == graph.degree(left)) {
+                    level[left] = unreachable;
+                    depth--;
+                    continue;
+                }
+                int right = graph.neighbour(left, nextEdge[left]++);
+                int matchedLeft = mate[right];
+                if (matchedLeft == noMate) {
+                    if (level[left] == freeLevel) {
+                        pathRight[depth] = right;
+                        augment(pathLeft, pathRight, depth);
+                        augmented++;
+                        break;
+                    }
+                } else if (level[left] < freeLevel && level[matchedLeft] == level[left] + 1) {
+                    pathRight[depth] = right;
+                    pathLeft[++depth] = matchedLeft;
+                }
+            }
+        }
+        return augmented;
+    }
+
+    /**
+     *This method reverse the flow along the path by matching every left node of path with next right node
+     * @param pathLeft
+     * @param pathRight
+     * @param depth
+     * pre: path should end at free right node
+     * post: matching size gets increased by one
+     */
+    private void augment(int[] pathLeft, int[] pathRight, int depth) {
+        for (int i = 0; i <= depth; i++) {
+            mate[pathLeft[i]] = pathRight[i];
+            mate[pathRight[i]] = pathLeft[i];
+            level[pathLeft[i]] = unreachable;
+        }
+    }
+
+    /**
+     *This method iterates over the right set of nodes and prints the matching edges information
+     * @param matchingCount
+     * pre: mate array should be filled
+     * post: prints the matching in bipartite graph in required format
+     */
+    private void printBipartiteMatching(int matchingCount) {
+
+        String[] labels = graph.getLabels();
+        for (int i = setSize + 1; i <= graph.getNumberOfNodes(); i++) {
+            if (mate[i] != noMate)
+                System.out.println(labels[mate[i]] + " / " + labels[i]);
+        }
+        System.out.println(matchingCount + " total matches");
+        System.out.println("total: " + graph.getBytesRead() + " bytes read, "
+                + graph.getBlockReads() + " blocks read");
+    }
+}
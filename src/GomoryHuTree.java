@@ -0,0 +1,552 @@
+/**
+ * This Class builds the Gomory Hu tree of the input graph so that min cut of any pair of nodes is a tree path query
+ * every edge of input graph is taken as undirected edge with capacity one, so min cut of two nodes is
+ * the number of edge disjoint paths between them
+ * Functionality includes:
+ * 1. find connected components, min cut between nodes of different components is zero
+ * 2. build the tree of every component by Gusfield algorithm with n-1 max flow computations by Dinics algorithm,
+ *    flows of one component depend on the tree built so far so components are built in parallel on a ForkJoinPool
+ * 3. min cut of two nodes is the smallest weight on the tree path between them, found by binary lifting
+ * @author Sayali Kudale
+ */
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class GomoryHuTree {
+
+    private static final int sampleQueries = 100000;	//random queries timed for the statistics
+    private int threads;
+    private int noOfNodes;
+    private int noOfEdges;
+    private String[] labels;
+    private int[] offsets;
+    private int[] targets;
+    private int[][] components;
+    private int[] parent;
+    private int[] weight;
+    private int[] component;
+    private int[] localId;
+    private int[] depth;
+    private int[][] ancestor;
+    private int[][] minWeight;
+    private AtomicLong flows;
+    private long buildTime;
+
+    /**
+     *constructor to initialise tree builder
+     * @param threads parallelism of the ForkJoinPool
+     * pre: threads should be at least one
+     * post: tree builder object gets initialised
+     */
+    public GomoryHuTree(int threads) {
+        if (threads < 1)
+            throw new IllegalArgumentException("Number of threads should be at least one");
+        this.threads = threads;
+    }
+
+    /**
+     *This method
+     * 1. creates undirected compressed adjacency of the graph
+     * 2. finds connected components
+     * 3. builds tree of every component in parallel
+     * 4. creates binary lifting tables for queries
+     * @param g
+     * pre: nodes and edges should be added and source and sink should not be added in the graph
+     * post: tree is built and min cut queries can be answered
+     */
+    public void build(Graph g) {
+
+        long start = System.nanoTime();
+        noOfNodes = g.getNoOfNodes();
+        labels = new String[noOfNodes + 1];
+        for (int i = 1; i <= noOfNodes; i++)
+            labels[i] = g.getNodeFromList(i - 1).getLabel();
+
+        offsets = new int[noOfNodes + 2];
+        for (int i = 0; i < noOfNodes; i++) {
+            for (Edge e : g.getNodeFromGraph(i)) {
+                offsets[e.getSource().getId() + 1]++;
+                offsets[e.getDest().getId() + 1]++;
+            }
+        }
+        for (int i = 0; i <= noOfNodes; i++)
+            offsets[i + 1] += offsets[i];
+        int[] next = offsets.clone();
+        targets = new int[offsets[noOfNodes + 1]];
+        for (int i = 0; i < noOfNodes; i++) {
+            for (Edge e : g.getNodeFromGraph(i)) {
+                int source = e.getSource().getId(), dest = e.getDest().getId();
+                targets[next[source]++] = dest;
+                targets[next[dest]++] = source;
+            }
+        }
+        noOfEdges = targets.length / 2;
+
+        findComponents();
+        parent = new int[noOfNodes + 1];
+        weight = new int[noOfNodes + 1];
+        flows = new AtomicLong();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            pool.invoke(new ComponentTask(0, components.length));
+        } finally {
+            pool.shutdown();
+        }
+        createLiftingTables();
+        buildTime = System.nanoTime() - start;
+    }
+
+    /**
+     *This method finds connected components by bfs, components are sorted by decreasing size so that
+     * the largest components are started first
+     * pre: undirected adjacency should be created
+     * post: components array, component id and position of every node in its component are filled
+     */
+    private void findComponents() {
+
+        component = new int[noOfNodes + 1];
+        Arrays.fill(component, -1);
+        ArrayList<int[]> found = new ArrayList<>();
+        int[] queue = new int[noOfNodes];
+        for (int start = 1; start <= noOfNodes; start++) {
+            if (component[start] != -1)
+                continue;
+            int head = 0, tail = 0;
+            queue[tail++] = start;
+            component[start] = found.size();
+            while (head < tail) {
+                int node = queue[head++];
+                for (int k = offsets[node]; k < offsets[node + 1]; k++) {
+                    if (component[targets[k]] == -1) {
+                        component[targets[k]] = found.size();
+                        queue[tail++] = targets[k];
+                    }
+                }
+            }
+            found.add(Arrays.copyOf(queue, tail));
+        }
+        found.sort(Comparator.comparingInt((int[] nodes) -> -nodes.length));
+        components = found.toArray(new int[0][]);
+        localId = new int[noOfNodes + 1];
+        for (int c = 0; c < components.length; c++) {
+            for (int i = 0; i < components[c].length; i++) {
+                component[components[c][i]] = c;
+                localId[components[c][i]] = i;
+            }
+        }
+    }
+
+    /**
+     * This Class builds the trees of a range of components
+     * range is split in halves until it has one component
+     */
+    private class ComponentTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+        private int low;
+        private int high;
+
+        private ComponentTask(int low, int high) {
+            this.low = low;
+            this.high = high;
+        }
+
+        @Override
+        protected void compute() {
+            if (high - low > 1) {
+                int middle = (low + high) >>> 1;
+                invokeAll(new ComponentTask(low, middle), new ComponentTask(middle, high));
+                return;
+            }
+            for (int c = low; c < high; c++)
+                buildComponent(components[c]);
+        }
+    }
+
+    /**
+     *This method builds the tree of one component by Gusfield algorithm
+     * 1. every node starts with first node of component as tree parent
+     * 2. for every node s find min cut with its tree parent t
+     * 3. nodes on side of s which had parent t are moved under s
+     * 4. if parent of t is on side of s then s takes place of t in the tree
+     * @param nodes
+     * pre: nodes should be one connected component
+     * post: tree parent and weight of every node of the component are filled, first node is the root
+     */
+    private void buildComponent(int[] nodes) {
+
+        int size = nodes.length;
+        parent[nodes[0]] = 0;
+        weight[nodes[0]] = 0;
+        if (size == 1)
+            return;
+        FlowNetwork network = new FlowNetwork(nodes);
+        int[] treeParent = new int[size];
+        int[] treeWeight = new int[size];
+        for (int s = 1; s < size; s++) {
+            int t = treeParent[s];
+            int cut = network.minCut(s, t);
+            treeWeight[s] = cut;
+            int[] sourceSide = network.getSourceSide();
+            for (int k = 0; k < network.getSourceSideSize(); k++) {
+                int i = sourceSide[k];
+                if (i != s && treeParent[i] == t)
+                    treeParent[i] = s;
+            }
+            if (t != 0 && network.isOnSourceSide(treeParent[t])) {
+                treeParent[s] = treeParent[t];
+                treeParent[t] = s;
+                treeWeight[s] = treeWeight[t];
+                treeWeight[t] = cut;
+            }
+        }
+        flows.addAndGet(size - 1);
+        for (int i = 1; i < size; i++) {
+            parent[nodes[i]] = nodes[treeParent[i]];
+            weight[nodes[i]] = treeWeight[i];
+        }
+    }
+
+    /**
+     * This Class finds max flow between two nodes of one component by Dinics algorithm
+     * nodes get local ids 0 to size-1 which are their positions in the component, every undirected edge gives two arcs of capacity one which
+     * are reverse of each other
+     */
+    private class FlowNetwork {
+
+        private int size;
+        private int[] arcOffsets;
+        private int[] arcTargets;
+        private int[] reverse;
+        private int[] residual;
+        private int[] level;
+        private int[] nextArc;
+        private int[] queue;
+        private int[] pathArc = new int[16];
+        private int reached;
+
+        /**
+         *constructor to create the local adjacency of the component
+         * @param nodes
+         * pre: nodes should be one connected component
+         * post: arcs and their reverse arcs are created
+         */
+        private FlowNetwork(int[] nodes) {
+            size = nodes.length;
+            arcOffsets = new int[size + 1];
+            for (int i = 0; i < size; i++)
+                arcOffsets[i + 1] = arcOffsets[i] + offsets[nodes[i] + 1] - offsets[nodes[i]];
+            arcTargets = new int[arcOffsets[size]];
+            reverse = new int[arcOffsets[size]];
+            int[] next = Arrays.copyOf(arcOffsets, size);
+            for (int i = 0; i < size; i++) {
+                for (int k = offsets[nodes[i]]; k < offsets[nodes[i] + 1]; k++) {
+                    int j = localId[targets[k]];
+                    if (i < j) {
+                        int forward = next[i]++, backward = next[j]++;
+                        arcTargets[forward] = j;
+                        arcTargets[backward] = i;
+                        reverse[forward] = backward;
+                        reverse[backward] = forward;
+                    }
+                }
+            }
+            residual = new int[arcTargets.length];
+            level = new int[size];
+            nextArc = new int[size];
+            queue = new int[size];
+        }
+
+        /**
+         *This method finds max flow from s to t, flow can not be more than degree of s or t so
+         * search stops when that bound is reached and the single node s or all nodes except t
+         * are taken as the side of s, otherwise nodes reachable from s in residual graph are the side of s
+         * @param s
+         * @param t
+         * @return
+         * pre: s and t should be different
+         * post: returns min cut value and side of s in a min cut is stored
+         */
+        private int minCut(int s, int t) {
+            Arrays.fill(residual, 1);
+            int sourceDegree = arcOffsets[s + 1] - arcOffsets[s];
+            int sinkDegree = arcOffsets[t + 1] - arcOffsets[t];
+            int bound = Math.min(sourceDegree, sinkDegree);
+            int flow = 0;
+            while (flow < bound && createLevels(s, t, false)) {
+                System.arraycopy(arcOffsets, 0, nextArc, 0, size);
+                while (flow < bound && augment(s, t))
+                    flow++;
+            }
+            if (flow < bound) {
+                createLevels(s, t, true);
+            } else if (flow == sourceDegree) {
+                Arrays.fill(level, -1);
+                level[s] = 0;
+                queue[0] = s;
+                reached = 1;
+            } else {
+                Arrays.fill(level, 0);
+                level[t] = -1;
+                reached = 0;
+                for (int i = 0; i < size; i++) {
+                    if (i != t)
+                        queue[reached++] = i;
+                }
+            }
+            return flow;
+        }
+
+        /**
+         *This method performs bfs from s over arcs with residual capacity
+         * @param s
+         * @param t
+         * @param full if false then nodes at the level of t are not expanded
+         * @return
+         * pre: residual capacities should be set
+         * post: returns true if t is reachable, reached nodes are kept in queue for the source side
+         */
+        private boolean createLevels(int s, int t, boolean full) {
+            Arrays.fill(level, -1);
+            int head = 0;
+            reached = 0;
+            level[s] = 0;
+            queue[reached++] = s;
+            while (head < reached) {
+                int node = queue[head++];
+                if (!full && level[t] != -1 && level[node] >= level[t])
+                    break;
+                for (int k = arcOffsets[node]; k < arcOffsets[node + 1]; k++) {
+                    int dest = arcTargets[k];
+                    if (residual[k] > 0 && level[dest] == -1) {
+                        level[dest] = level[node] + 1;
+                        queue[reached++] = dest;
+                    }
+                }
+            }
+            return level[t] != -1;
+        }
+
+        /**
+         *This method performs dfs from s along the level graph and pushes one unit of flow
+         * arcs which lead to dead end are skipped for rest of the phase
+         * @param s
+         * @param t
+         * @return
+         * pre: levels should be created
+         * post: returns true if a path is found and residual capacities are updated along it
+         */
+        private boolean augment(int s, int t) {
+            int depth = 0;
+            int node = s;
+            while (true) {
+                if (node == t) {
+                    for (int i = 0; i < depth; i++) {
+                        residual[pathArc[i]]--;
+                        residual[reverse[pathArc[i]]]++;
+                    }
+                    return true;
+                }
+                boolean advanced = false;
+                for (; nextArc[node] < arcOffsets[node + 1]; nextArc[node]++) {
+                    int k = nextArc[node];
+                    int dest = arcTargets[k];
+                    if (residual[k] > 0 && level[dest] == level[node] + 1) {
+                        if (depth == pathArc.length)
+                            pathArc = Arrays.copyOf(pathArc, 2 * depth);
+                        pathArc[depth++] = k;
+                        node = dest;
+                        advanced = true;
+                        break;
+                    }
+                }
+                if (!advanced) {
+                    if (depth == 0)
+                        return false;
+                    level[node] = -1;
+                    node = arcTargets[reverse[pathArc[--depth]]];
+                    nextArc[node]++;
+                }
+            }
+        }
+
+        /**
+         * accessor for nodes on the side of s in last min cut, first getSourceSideSize entries are valid
+         * pre: minCut should be completed
+         * post: returns local ids of source side nodes */
+        private int[] getSourceSide() {
+            return queue;
+        }
+
+        /**
+         * accessor for number of nodes on the side of s in last min cut
+         * pre: minCut should be completed
+         * post: returns size of source side */
+        private int getSourceSideSize() {
+            return reached;
+        }
+
+        /**
+         *This method checks whether node is on the side of s in last min cut
+         * @param node
+         * @return
+         * pre: minCut should be completed
+         * post: returns true if node was reached from s
+         */
+        private boolean isOnSourceSide(int node) {
+            return level[node] != -1;
+        }
+    }
+
+    /**
+     *This method creates depth of every node and binary lifting tables of ancestors and smallest weight
+     * to the ancestor
+     * pre: tree should be built
+     * post: ancestor and minWeight tables are filled
+     */
+    private void createLiftingTables() {
+
+        depth = new int[noOfNodes + 1];
+        Arrays.fill(depth, -1);
+        int[] stack = new int[noOfNodes + 1];
+        for (int i = 1; i <= noOfNodes; i++) {
+            int top = 0;
+            int node = i;
+            while (depth[node] == -1 && parent[node] != 0) {
+                stack[top++] = node;
+                node = parent[node];
+            }
+            if (depth[node] == -1)
+                depth[node] = 0;
+            while (top > 0) {
+                int child = stack[--top];
+                depth[child] = depth[parent[child]] + 1;
+            }
+        }
+
+        int levels = 32 - Integer.numberOfLeadingZeros(noOfNodes);
+        ancestor = new int[levels][noOfNodes + 1];
+        minWeight = new int[levels][noOfNodes + 1];
+        for (int i = 1; i <= noOfNodes; i++) {
+            ancestor[0][i] = parent[i];
+            minWeight[0][i] = weight[i];
+        }
+        for (int j = 1; j < levels; j++) {
+            for (int i = 1; i <= noOfNodes; i++) {
+                int middle = ancestor[j - 1][i];
+                ancestor[j][i] = ancestor[j - 1][middle];
+                minWeight[j][i] = Math.min(minWeight[j - 1][i], minWeight[j - 1][middle]);
+            }
+        }
+    }
+
+    /**
+     *This method finds the min cut between two nodes as the smallest weight on their tree path
+     * @param u
+     * @param v
+     * @return
+     * pre: build should be completed and nodes should be different
+     * post: returns min cut value between u and v
+     */
+    public int minCut(int u, int v) {
+        if (u == v)
+            throw new IllegalArgumentException("Min cut needs two different nodes");
+        if (component[u] != component[v])
+            return 0;
+        int cut = Integer.MAX_VALUE;
+        if (depth[u] < depth[v]) {
+            int swap = u;
+            u = v;
+            v = swap;
+        }
+        for (int j = ancestor.length - 1; j >= 0; j--) {
+            if (depth[u] - (1 << j) >= depth[v]) {
+                cut = Math.min(cut, minWeight[j][u]);
+                u = ancestor[j][u];
+            }
+        }
+        if (u == v)
+            return cut;
+        for (int j = ancestor.length - 1; j >= 0; j--) {
+            if (ancestor[j][u] != ancestor[j][v]) {
+                cut = Math.min(cut, Math.min(minWeight[j][u], minWeight[j][v]));
+                u = ancestor[j][u];
+                v = ancestor[j][v];
+            }
+        }
+        return Math.min(cut, Math.min(weight[u], weight[v]));
+    }
+
+    /**
+     *This method returns the id of node with given label
+     * @param label
+     * @return
+     * pre: build should be completed
+     * post: returns node id, throws exception if no node has the label
+     */
+    public int findNode(String label) {
+        for (int i = 1; i <= noOfNodes; i++) {
+            if (labels[i].equals(label))
+                return i;
+        }
+        throw new IllegalArgumentException("No node with label " + label);
+    }
+
+    /**
+     *This method prints min cut between the nodes with given labels
+     * @param first
+     * @param second
+     * pre: build should be completed
+     * post: prints min cut value in required format
+     */
+    public void printMinCut(String first, String second) {
+        System.out.println("min cut " + first + " / " + second + ": " + minCut(findNode(first), findNode(second)));
+    }
+
+    /**
+     *This method prints tree edges with the min cut value between their end nodes, roots of components are skipped
+     * pre: build should be completed
+     * post: prints tree edges in required format
+     */
+    public void printTree() {
+        int count = 0;
+        for (int i = 1; i <= noOfNodes; i++) {
+            if (parent[i] != 0) {
+                System.out.println(labels[i] + " / " + labels[parent[i]] + " " + weight[i]);
+                count++;
+            }
+        }
+        System.out.println(count + " tree edges");
+    }
+
+    /**
+     *This method prints the build statistics and times random pair queries
+     * pre: build should be completed and graph should have at least two nodes
+     * post: prints size of graph, components, flows, build time and average query time
+     */
+    public void printStatistics() {
+        Random random = new Random(1);
+        int[] first = new int[sampleQueries], second = new int[sampleQueries];
+        for (int q = 0; q < sampleQueries; q++) {
+            first[q] = 1 + random.nextInt(noOfNodes);
+            second[q] = 1 + random.nextInt(noOfNodes - 1);
+            if (second[q] >= first[q])
+                second[q]++;
+        }
+        long checksum = 0;
+        long start = System.nanoTime();
+        for (int q = 0; q < sampleQueries; q++)
+            checksum += minCut(first[q], second[q]);
+        long queryTime = System.nanoTime() - start;
+
+        System.out.println("gomory hu: " + noOfNodes + " nodes, " + noOfEdges + " edges, " + components.length
+                + " components, " + flows.get() + " max flows, " + threads + " threads");
+        System.out.printf("gomory hu: build %.1f ms, %d random queries %.3f us each (average cut %.2f)%n",
+                buildTime / 1e6, sampleQueries, queryTime / 1e3 / sampleQueries, (double) checksum / sampleQueries);
+    }
+}
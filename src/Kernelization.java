@@ -0,0 +1,435 @@
+/**
+ * This Class reduces the graph before the flow network is created so that engine solves only the kernel
+ * Functionality includes:
+ * 1. match every node of degree one with its only neighbour and remove both
+ * 2. drop the isolated nodes
+ * 3. find twin nodes which have identical neighbour sets, if twins are at least as many as their
+ *    neighbours then match all neighbours with twins and remove them (degree one is the smallest case)
+ * 4. repeat until no rule applies and create kernel graph of remaining nodes, twin classes are kept between
+ *    rounds and only nodes whose remaining neighbours changed are hashed again
+ * 5. lift the matching of kernel to the original graph by adding the matches done by reduction
+ * Every rule keeps some maximum matching: neighbours of twins have no better partner than a twin
+ * because twins can be matched only to these neighbours
+ * @author Sayali Kudale
+ */
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+
+public class Kernelization {
+
+    private int noOfNodes;
+    private int setSize;
+    private int noOfEdges;
+    private String[] labels;
+    private int[][] neighbours;
+    private boolean[] removed;
+    private int[] degree;
+    private int[] mate;
+    private HashMap<IntArrayKey, TwinClass> classes;
+    private TwinClass[] classOf;
+    private boolean[] dirty;
+    private Deque<Integer> dirtyNodes;
+    private int[] originalId;
+    private int kernelNodes;
+    private int kernelEdges;
+    private int degreeOneMatches;
+    private int twinMatches;
+    private int isolatedNodes;
+    private long reductionTime;
+
+    /**
+     *This method
+     * 1. creates the neighbour sets of every node without duplicate edges
+     * 2. applies degree one and twin rules until no rule applies
+     * 3. creates the kernel graph
+     * @param g
+     * @return
+     * pre: nodes and edges should be added and source and sink should not be added in the graph
+     * post: returns kernel graph, matches done by reduction are stored for lifting
+     */
+    public Graph reduce(Graph g) {
+
+        long start = System.nanoTime();
+        noOfNodes = g.getNoOfNodes();
+        setSize = g.getSetSize();
+        labels = new String[noOfNodes + 1];
+        for (int i = 1; i <= noOfNodes; i++)
+            labels[i] = g.getNodeFromList(i - 1).getLabel();
+        createNeighbourSets(g);
+
+        removed = new boolean[noOfNodes + 1];
+        degree = new int[noOfNodes + 1];
+        mate = new int[noOfNodes + 1];
+        classes = new HashMap<>();
+        classOf = new TwinClass[noOfNodes + 1];
+        dirty = new boolean[noOfNodes + 1];
+        dirtyNodes = new ArrayDeque<>();
+        Deque<Integer> degreeOne = new ArrayDeque<>();
+        for (int i = 1; i <= noOfNodes; i++) {
+            degree[i] = neighbours[i].length;
+            if (degree[i] == 1)
+                degreeOne.offer(i);
+            dirty[i] = true;
+            dirtyNodes.offer(i);
+        }
+
+        boolean changed = true;
+        while (changed) {
+            while (!degreeOne.isEmpty()) {
+                int node = degreeOne.poll();
+                if (removed[node] || degree[node] != 1)
+                    continue;
+                int neighbour = firstAliveNeighbour(node);
+                match(node, neighbour);
+                degreeOneMatches++;
+                removeNode(node, degreeOne);
+                removeNode(neighbour, degreeOne);
+            }
+            changed = reduceTwins(degreeOne);
+        }
+
+        for (int i = 1; i <= noOfNodes; i++) {
+            if (!removed[i] && degree[i] == 0) {
+                removed[i] = true;
+                isolatedNodes++;
+            }
+        }
+        Graph kernel = createKernel();
+        reductionTime = System.nanoTime() - start;
+        return kernel;
+    }
+
+    /**
+     *This method creates sorted neighbour set of every node from the edges of graph
+     * @param g
+     * pre: source and sink should not be added in the graph
+     * post: neighbours array is filled and duplicate edges are counted once
+     */
+    private void createNeighbourSets(Graph g) {
+
+        int[] count = new int[noOfNodes + 1];
+        for (int i = 0; i < noOfNodes; i++) {
+            for (Edge e : g.getNodeFromGraph(i)) {
+                count[e.getSource().getId()]++;
+                count[e.getDest().getId()]++;
+            }
+        }
+        neighbours = new int[noOfNodes + 1][];
+        for (int i = 0; i <= noOfNodes; i++)
+            neighbours[i] = new int[count[i]];
+        Arrays.fill(count, 0);
+        for (int i = 0; i < noOfNodes; i++) {
+            for (Edge e : g.getNodeFromGraph(i)) {
+                int source = e.getSource().getId(), dest = e.getDest().getId();
+                neighbours[source][count[source]++] = dest;
+                neighbours[dest][count[dest]++] = source;
+            }
+        }
+        noOfEdges = 0;
+        for (int i = 0; i <= noOfNodes; i++) {
+            int[] sorted = neighbours[i];
+            Arrays.sort(sorted);
+            int distinct = 0;
+            for (int k = 0; k < sorted.length; k++) {
+                if (k == 0 || sorted[k] != sorted[k - 1])
+                    sorted[distinct++] = sorted[k];
+            }
+            if (distinct < sorted.length)
+                neighbours[i] = Arrays.copyOf(sorted, distinct);
+            if (i <= setSize)
+                noOfEdges += distinct;
+        }
+    }
+
+    /**
+     *This method moves every node whose remaining neighbours changed to the twin class of its new
+     * neighbour set and reduces every changed class which has at least as many twins as neighbours,
+     * classes which got no new node can not be reduced because their twins and neighbours are same as before
+     * @param degreeOne queue of nodes which become degree one
+     * @return
+     * pre: neighbour sets and degrees should be created
+     * post: returns true if any class is reduced
+     */
+    private boolean reduceTwins(Deque<Integer> degreeOne) {
+
+        ArrayList<TwinClass> changedClasses = new ArrayList<>();
+        while (!dirtyNodes.isEmpty()) {
+            int node = dirtyNodes.poll();
+            dirty[node] = false;
+            classOf[node] = null;
+            if (removed[node] || degree[node] < 2)
+                continue;
+            IntArrayKey key = new IntArrayKey(aliveNeighbours(node));
+            TwinClass twinClass = classes.computeIfAbsent(key, k -> new TwinClass(k.values));
+            twinClass.twins.add(node);
+            classOf[node] = twinClass;
+            if (!twinClass.changed) {
+                twinClass.changed = true;
+                changedClasses.add(twinClass);
+            }
+        }
+
+        boolean changed = false;
+        for (TwinClass twinClass : changedClasses) {
+            twinClass.changed = false;
+            ArrayList<Integer> twins = currentTwins(twinClass);
+            int[] common = twinClass.common;
+            if (twins.size() < common.length || !neighboursPresent(common))
+                continue;
+            classes.remove(new IntArrayKey(common));
+            for (int k = 0; k < common.length; k++) {
+                match(twins.get(k), common[k]);
+                twinMatches++;
+            }
+            for (int neighbour : common)
+                removeNode(neighbour, degreeOne);
+            for (int twin : twins)
+                removeNode(twin, degreeOne);
+            changed = true;
+        }
+        return changed;
+    }
+
+    /**
+     * This method drops the nodes which are removed or moved to other class since they were added
+     * @param twinClass
+     * @return
+     * pre: none
+     * post: returns the nodes which are still in the class and keeps only them in the class
+     */
+    private ArrayList<Integer> currentTwins(TwinClass twinClass) {
+        ArrayList<Integer> twins = new ArrayList<>();
+        for (int twin : twinClass.twins) {
+            if (!removed[twin] && classOf[twin] == twinClass)
+                twins.add(twin);
+        }
+        twinClass.twins = twins;
+        return twins;
+    }
+
+    /**
+     * This method checks that neighbours of a class are not removed by an earlier class in this pass
+     * @param common
+     * @return
+     * pre: none
+     * post: returns true if every node is still present
+     */
+    private boolean neighboursPresent(int[] common) {
+        for (int neighbour : common) {
+            if (removed[neighbour])
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * This method returns the neighbours of node which are not removed
+     * @param node
+     * @return
+     * pre: neighbour sets should be created
+     * post: returns sorted array of alive neighbours
+     */
+    private int[] aliveNeighbours(int node) {
+        int[] alive = new int[degree[node]];
+        int count = 0;
+        for (int neighbour : neighbours[node]) {
+            if (!removed[neighbour])
+                alive[count++] = neighbour;
+        }
+        return alive;
+    }
+
+    /**
+     * This method returns the first neighbour of node which is not removed
+     * @param node
+     * @return
+     * pre: node should have degree at least one
+     * post: returns id of alive neighbour
+     */
+    private int firstAliveNeighbour(int node) {
+        for (int neighbour : neighbours[node]) {
+            if (!removed[neighbour])
+                return neighbour;
+        }
+        throw new IllegalStateException("Node " + node + " has no neighbour");
+    }
+
+    /**
+     * This method stores the match done by reduction
+     * @param u
+     * @param v
+     * pre: both nodes should be unmatched
+     * post: nodes are matched in mate array
+     */
+    private void match(int u, int v) {
+        mate[u] = v;
+        mate[v] = u;
+    }
+
+    /**
+     *This method removes the node and decreases the degree of its alive neighbours
+     * @param node
+     * @param degreeOne
+     * pre: degrees should be created
+     * post: node is removed, neighbours which become degree one are added in the queue and
+     * all neighbours are marked to be hashed again
+     */
+    private void removeNode(int node, Deque<Integer> degreeOne) {
+        if (removed[node])
+            return;
+        removed[node] = true;
+        for (int neighbour : neighbours[node]) {
+            if (removed[neighbour])
+                continue;
+            if (--degree[neighbour] == 1)
+                degreeOne.offer(neighbour);
+            if (!dirty[neighbour]) {
+                dirty[neighbour] = true;
+                dirtyNodes.offer(neighbour);
+            }
+        }
+    }
+
+    /**
+     *This method creates the graph of remaining nodes and edges
+     * kernel left and right sets are padded to same size with isolated nodes so that
+     * first half of the nodes is the left set
+     * @return
+     * pre: reduction should be completed
+     * post: returns kernel graph without source and sink, originalId maps kernel id to input id
+     */
+    private Graph createKernel() {
+
+        int left = 0, right = 0;
+        for (int i = 1; i <= noOfNodes; i++) {
+            if (!removed[i]) {
+                if (i <= setSize)
+                    left++;
+                else
+                    right++;
+            }
+        }
+        int half = Math.max(left, right);
+        kernelNodes = left + right;
+        originalId = new int[2 * half + 1];
+        int[] kernelId = new int[noOfNodes + 1];
+        int nextLeft = 1, nextRight = half + 1;
+        for (int i = 1; i <= noOfNodes; i++) {
+            if (!removed[i]) {
+                int id = i <= setSize ? nextLeft++ : nextRight++;
+                kernelId[i] = id;
+                originalId[id] = i;
+            }
+        }
+
+        Graph kernel = new Graph(2 * half);
+        for (int id = 1; id <= 2 * half; id++)
+            kernel.addNodes(new Node(id, originalId[id] == 0 ? "" : labels[originalId[id]]));
+        kernelEdges = 0;
+        for (int i = 1; i <= setSize; i++) {
+            if (removed[i])
+                continue;
+            for (int neighbour : neighbours[i]) {
+                if (!removed[neighbour]) {
+                    kernel.addEdge(new Edge(kernel.getNodeFromList(kernelId[i] - 1),
+                            kernel.getNodeFromList(kernelId[neighbour] - 1)));
+                    kernelEdges++;
+                }
+            }
+        }
+        return kernel;
+    }
+
+    /**
+     *This method adds the matching of kernel to the matches done by reduction
+     * @param kernelMate mate array of kernel indexed by kernel id, may be null if kernel was not solved
+     * @return
+     * pre: reduce should be completed
+     * post: returns mate array of original graph indexed by input node id
+     */
+    public int[] lift(int[] kernelMate) {
+        int[] lifted = mate.clone();
+        if (kernelMate != null) {
+            for (int id = 1; id < originalId.length && id < kernelMate.length; id++) {
+                if (originalId[id] != 0 && kernelMate[id] != 0)
+                    lifted[originalId[id]] = originalId[kernelMate[id]];
+            }
+        }
+        return lifted;
+    }
+
+    /**
+     * This method checks whether anything is left to solve after reduction
+     * @return
+     * pre: reduce should be completed
+     * post: returns true if kernel has at least one edge
+     */
+    public boolean hasKernel() {
+        return kernelEdges > 0;
+    }
+
+    /**
+     *This method prints the matching of original graph in the same format as the exact solver
+     * @param liftedMate
+     * pre: liftedMate should be returned by lift
+     * post: prints the matching with input labels
+     */
+    public void printMatching(int[] liftedMate) {
+        BipartiteAdjacency.printMatching(labels, setSize, liftedMate);
+    }
+
+    /**
+     *This method prints the reduction statistics
+     * @param solveTime time taken by the engine on kernel in nanoseconds
+     * pre: reduce should be completed
+     * post: prints matches done by each rule, kernel size, reduction ratio and time
+     */
+    public void printStatistics(long solveTime) {
+        System.out.println("kernel: " + degreeOneMatches + " degree one matches, " + twinMatches
+                + " twin matches, " + isolatedNodes + " isolated nodes dropped");
+        System.out.printf("kernel: %d of %d nodes, %d of %d edges remain (%.1f%% of edges removed)%n",
+                kernelNodes, noOfNodes, kernelEdges, noOfEdges,
+                noOfEdges == 0 ? 0.0 : 100.0 * (noOfEdges - kernelEdges) / noOfEdges);
+        System.out.printf("kernel: reduction %.1f ms, kernel solve %.1f ms%n", reductionTime / 1e6, solveTime / 1e6);
+    }
+
+    /**
+     * This Class represents the nodes which had same remaining neighbours when they were hashed,
+     * a node is still in the class only if classOf of the node is this class
+     */
+    private static class TwinClass {
+        private int[] common;
+        private ArrayList<Integer> twins = new ArrayList<>();
+        private boolean changed;
+
+        private TwinClass(int[] common) {
+            this.common = common;
+        }
+    }
+
+    /**
+     * This Class wraps the sorted neighbour array so that it can be used as key of hash map
+     */
+    private static class IntArrayKey {
+        private int[] values;
+        private int hash;
+
+        private IntArrayKey(int[] values) {
+            this.values = values;
+            this.hash = Arrays.hashCode(values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof IntArrayKey && Arrays.equals(values, ((IntArrayKey) other).values);
+        }
+    }
+}
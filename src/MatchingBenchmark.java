@@ -0,0 +1,234 @@
+/**
+ * This Class measures the running time of the matching engines on generated graphs
+ * Functionality includes:
+ * 1. generate random bipartite graph with given number of nodes and average degree
+ * 2. run the auction and parallel augmenting path engines with 1, 2, 4 ... up to given number of threads
+ * 3. compare the matching size with the exact sequential result and print time and speedup
+ * 4. with -reorder, compare the solve time of every node reordering instead of the thread counts
+ * 5. with -kernel, compare the solve time of full graph with reduction plus kernel solve
+ * Usage: java MatchingBenchmark [nodes] [averageDegree] [maxThreads] [seed] [-reorder|-kernel]
+ * @author Sayali Kudale
+ */
+import java.util.Random;
+
+public class MatchingBenchmark {
+
+    private static final int repetitions = 3;	//best time of repetitions is reported
+    private static final int warmUps = 3;	//untimed runs of every engine before timing so that JIT compilation is not timed
+
+    /**
+     *This main method generates the graph and runs the benchmark
+     * @param args nodes, average degree, maximum threads and seed
+     * pre: none
+     * post: prints time, speedup and validation result for every thread count
+     */
+    public static void main(String args[]) throws InterruptedException {
+
+        int nodes = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+        int degree = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : 32;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 1;
+
+        Graph graph = generateGraph(nodes, degree, seed);
+        if (args.length > 4 && args[4].equals("-reorder")) {
+            compareReorderings(graph, maxThreads);
+            return;
+        }
+        if (args.length > 4 && args[4].equals("-kernel")) {
+            compareKernel(graph, maxThreads);
+            return;
+        }
+        BipartiteMatching.createSourceSink(graph, nodes);
+        BipartiteAdjacency adjacency = BipartiteAdjacency.fromGraph(graph);
+        System.out.println(nodes + " nodes, " + adjacency.getNoOfEdges() + " edges, "
+                + Runtime.getRuntime().availableProcessors() + " processors");
+
+        for (int w = 0; w < warmUps; w++)
+            AugmentingPathSearch.augmentToMaximum(adjacency, new int[nodes + 1]);
+        int[] exact = new int[nodes + 1];
+        long start = System.nanoTime();
+        AugmentingPathSearch.augmentToMaximum(adjacency, exact);
+        int exactSize = adjacency.matchingSize(exact);
+        System.out.printf("sequential augmenting paths: %d matches, %.1f ms%n",
+                exactSize, (System.nanoTime() - start) / 1e6);
+
+        timeEngine("auction", maxThreads, adjacency, exactSize,
+                threads -> new AuctionBipartiteMatching(threads, 1).findMaxMatching(adjacency));
+        timeEngine("parallel paths", maxThreads, adjacency, exactSize,
+                threads -> new ParallelAugmentingPathMatching(threads).findMaxMatching(adjacency));
+    }
+
+    /**
+     * This interface represents a matching engine which runs with given number of threads
+     */
+    private interface Engine {
+        int[] run(int threads) throws InterruptedException;
+    }
+
+    /**
+     *This method runs the engine with 1, 2, 4 ... up to maxThreads threads and prints best time of repetitions
+     * engine is first run without timing with one thread and with maxThreads threads so that the one thread
+     * base time is measured on compiled code like the other thread counts
+     * @param name
+     * @param maxThreads
+     * @param adjacency
+     * @param exactSize size of maximum matching
+     * @param engine
+     * @throws InterruptedException
+     * pre: compressed adjacency should be created
+     * post: prints time, speedup and validation result for every thread count
+     */
+    private static void timeEngine(String name, int maxThreads, BipartiteAdjacency adjacency, int exactSize,
+                                   Engine engine) throws InterruptedException {
+
+        for (int w = 0; w < warmUps; w++) {
+            engine.run(1);
+            engine.run(maxThreads);
+        }
+        double baseTime = 0;
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            long best = Long.MAX_VALUE;
+            int size = 0;
+            for (int r = 0; r < repetitions; r++) {
+                long start = System.nanoTime();
+                int[] mate = engine.run(threads);
+                best = Math.min(best, System.nanoTime() - start);
+                size = adjacency.matchingSize(mate);
+            }
+            double time = best / 1e6;
+            if (threads == 1)
+                baseTime = time;
+            System.out.printf("%s %2d threads: %.1f ms, speedup %.2f, %s%n", name, threads, time,
+                    baseTime / time, size == exactSize ? "valid" : "INVALID size " + size);
+        }
+    }
+
+    /**
+     *This method solves the graph in input order and after every reordering, with sequential augmenting
+     * paths and with the parallel engine, and prints the best time of repetitions
+     * @param graph
+     * @param threads
+     * pre: source and sink should not be added in the graph
+     * post: prints reorder time, edge span and solve times for every order
+     */
+    private static void compareReorderings(Graph graph, int threads) {
+
+        String[] strategies = {"none", "bfs", "degree", "rcm"};
+        for (String strategy : strategies) {
+            VertexReordering reordering = null;
+            Graph solved;
+            if (strategy.equals("none")) {
+                solved = copyGraph(graph);
+            } else {
+                reordering = new VertexReordering(strategy);
+                solved = reordering.reorder(graph);
+            }
+            BipartiteMatching.createSourceSink(solved, solved.getNoOfNodes());
+            BipartiteAdjacency adjacency = BipartiteAdjacency.fromGraph(solved);
+
+            long sequential = Long.MAX_VALUE, parallel = Long.MAX_VALUE;
+            int size = 0;
+            for (int r = 0; r < repetitions; r++) {
+                int[] mate = new int[adjacency.getNoOfNodes() + 1];
+                long start = System.nanoTime();
+                AugmentingPathSearch.augmentToMaximum(adjacency, mate);
+                sequential = Math.min(sequential, System.nanoTime() - start);
+                size = adjacency.matchingSize(mate);
+                start = System.nanoTime();
+                new ParallelAugmentingPathMatching(threads).findMaxMatching(adjacency);
+                parallel = Math.min(parallel, System.nanoTime() - start);
+            }
+            if (reordering != null)
+                reordering.printStatistics();
+            System.out.printf("%-6s: %d matches, sequential %.1f ms, parallel %d threads %.1f ms%n",
+                    strategy, size, sequential / 1e6, threads, parallel / 1e6);
+        }
+    }
+
+    /**
+     *This method solves the full graph and the kernel with the parallel engine and prints
+     * the time saved by reduction
+     * @param graph
+     * @param threads
+     * pre: source and sink should not be added in the graph
+     * post: prints full solve time, reduction time, kernel solve time and matching sizes
+     */
+    private static void compareKernel(Graph graph, int threads) {
+
+        Graph full = copyGraph(graph);
+        BipartiteMatching.createSourceSink(full, full.getNoOfNodes());
+        BipartiteAdjacency adjacency = BipartiteAdjacency.fromGraph(full);
+        long start = System.nanoTime();
+        int[] mate = new ParallelAugmentingPathMatching(threads).findMaxMatching(adjacency);
+        long fullTime = System.nanoTime() - start;
+        int fullSize = adjacency.matchingSize(mate);
+
+        start = System.nanoTime();
+        Kernelization kernelization = new Kernelization();
+        Graph kernel = kernelization.reduce(graph);
+        int[] kernelMate = null;
+        long solveStart = System.nanoTime();
+        if (kernelization.hasKernel()) {
+            BipartiteMatching.createSourceSink(kernel, kernel.getNoOfNodes());
+            kernelMate = new ParallelAugmentingPathMatching(threads).findMaxMatching(BipartiteAdjacency.fromGraph(kernel));
+        }
+        long solveTime = System.nanoTime() - solveStart;
+        int[] lifted = kernelization.lift(kernelMate);
+        long kernelTime = System.nanoTime() - start;
+        int liftedSize = 0;
+        for (int i = graph.getSetSize() + 1; i <= graph.getNoOfNodes(); i++) {
+            if (lifted[i] != 0)
+                liftedSize++;
+        }
+
+        kernelization.printStatistics(solveTime);
+        System.out.printf("full graph: %d matches, %.1f ms; with kernel: %d matches, %.1f ms, %.1f ms saved%n",
+                fullSize, fullTime / 1e6, liftedSize, kernelTime / 1e6, (fullTime - kernelTime) / 1e6);
+    }
+
+    /**
+     *This method copies nodes and edges to new graph so that source and sink can be added
+     * without changing the given graph
+     * @param g
+     * @return
+     * pre: source and sink should not be added in the graph
+     * post: returns graph with same nodes and edges
+     */
+    private static Graph copyGraph(Graph g) {
+        int nodes = g.getNoOfNodes();
+        Graph copy = new Graph(nodes);
+        for (int i = 0; i < nodes; i++)
+            copy.addNodes(g.getNodeFromList(i));
+        for (int i = 0; i < nodes; i++) {
+            for (Edge e : g.getNodeFromGraph(i))
+                copy.addEdge(e);
+        }
+        return copy;
+    }
+
+    /**
+     *This method creates graph with random edges from left set to right set
+     * @param nodes
+     * @param degree average degree of left nodes
+     * @param seed
+     * @return
+     * pre: nodes should be at least two
+     * post: returns graph without source and sink
+     */
+    public static Graph generateGraph(int nodes, int degree, long seed) {
+
+        Random random = new Random(seed);
+        Graph g = new Graph(nodes);
+        for (int i = 1; i <= nodes; i++)
+            g.addNodes(new Node(i, "v" + i));
+        int setSize = g.getSetSize();
+        int rightSize = nodes - setSize;
+        long edges = (long) setSize * degree;
+        for (long e = 0; e < edges; e++) {
+            Node source = g.getNodeFromList(random.nextInt(setSize));
+            Node dest = g.getNodeFromList(setSize + random.nextInt(rightSize));
+            g.addEdge(new Edge(source, dest));
+        }
+        return g;
+    }
+}
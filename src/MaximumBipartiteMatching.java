@@ -7,6 +7,7 @@
  * 4. remove back edges from level graph
  * 5. retreat if no further path available and remove incident edges from node
  * 6. determine the maximum bipartite matching and print the output
+ * 7. derive Konig vertex cover, independent set and Dulmage Mendelsohn decomposition from final residual graph
  * @author Sayali Kudale
  */
 
@@ -21,6 +22,7 @@ public class MaximumBipartiteMatching {
     private LinkedList<Edge> path;
     private boolean matchingExists=true;
     private int numberOfNodes;
+    private boolean[] reachableFromSource;
 
     /**
      *This method
@@ -33,6 +35,19 @@ public class MaximumBipartiteMatching {
      */
     public void findMaxMatching(Graph graph){
 
+        computeMaxMatching(graph);
+        printBipartiteMatching();
+    }
+
+    /**
+     *This method stores the residual graph and continue the phases until termination condition
+     * without printing the output
+     * @param graph
+     * pre: residual graph and nodelist should be created
+     * post: residual graph contains the maximum matching as augmented edges
+     */
+    public void computeMaxMatching(Graph graph){
+
         this.residualGraph =graph;
         this.numberOfNodes= residualGraph.getNoOfNodesInResidual();
 
@@ -42,7 +57,24 @@ public class MaximumBipartiteMatching {
             int sourceIndex=0;
             advance(sourceIndex);
         }
-        printBipartiteMatching();
+    }
+
+    /**
+     *This method counts the augmented edges from the right set of the nodes in the residual graph
+     * @return
+     * pre: computeMaxMatching should be completed
+     * post: returns the size of maximum matching
+     */
+    public int getMatchingCount(){
+
+        int leftIndex= residualGraph.getSetSize();
+        int rightIndex= residualGraph.getNoOfNodesInResidual();
+        int matchingCount =0;
+        for(int i=leftIndex+1; i<rightIndex-1 ;i++){
+            if(residualGraph.getAugmentedEdge(i)!=null)
+                matchingCount++;
+        }
+        return matchingCount;
     }
 
     /**
@@ -176,6 +208,27 @@ public class MaximumBipartiteMatching {
         return levelGraph;
     }
 
+    /**
+     *This method creates mate array from the augmented edges of the right set of the nodes in the residual graph
+     * @return
+     * pre: computeMaxMatching should be completed
+     * post: returns mate array indexed by node id with 0 for unmatched nodes
+     */
+    public int[] getMatching(){
+
+        int leftIndex= residualGraph.getSetSize();
+        int rightIndex= residualGraph.getNoOfNodesInResidual();
+        int[] mate=new int[rightIndex-1];
+        for(int i=leftIndex+1; i<rightIndex-1 ;i++){
+            Edge edge= residualGraph.getAugmentedEdge(i);
+            if(edge!=null){
+                mate[i]=edge.getDest().getId();
+                mate[edge.getDest().getId()]=i;
+            }
+        }
+        return mate;
+    }
+
     /**
      *This method checks the augmented edges by iterating over the right set of the nodes in the residual graph
      * and prints the matching edges information
@@ -222,7 +275,97 @@ public class MaximumBipartiteMatching {
                 }
             }
         }
+        reachableFromSource=visited;
         return visited[numberOfNodes-1];
     }
 
+    /**
+     *This method prints the structure of graph which is derived from the final residual graph
+     * Z is the set of nodes reachable from source and R is the set of nodes which can reach sink
+     * 1. Konig minimum vertex cover is left nodes not in Z and right nodes in Z
+     * 2. maximum independent set is the remaining nodes
+     * 3. Dulmage Mendelsohn even nodes are left nodes in Z and right nodes in R, these can be unmatched
+     *    in some maximum matching; odd nodes are right nodes in Z and left nodes in R; other nodes are
+     *    unreachable, odd and unreachable nodes are matched in every maximum matching
+     * pre: findMaxMatching should be completed so that Z is already computed
+     * post: prints the vertex cover, independent set and decomposition
+     */
+    public void printGraphDecomposition(){
+
+        boolean reachesSink[]= findNodesReachingSink();
+        int leftIndex= residualGraph.getSetSize();
+        StringBuilder cover=new StringBuilder(), independent=new StringBuilder();
+        StringBuilder even=new StringBuilder(), odd=new StringBuilder(), unreachable=new StringBuilder();
+        int coverCount=0, independentCount=0, evenCount=0, oddCount=0, unreachableCount=0;
+
+        for (int i=1;i<numberOfNodes-1;i++){
+            String label= " "+residualGraph.getNodeFromList(i).getLabel();
+            boolean left= i<=leftIndex;
+            if(left!=reachableFromSource[i]){
+                cover.append(label);
+                coverCount++;
+            }else{
+                independent.append(label);
+                independentCount++;
+            }
+            if(reachableFromSource[i] || reachesSink[i]){
+                if(reachableFromSource[i]==left){
+                    even.append(label);
+                    evenCount++;
+                }else{
+                    odd.append(label);
+                    oddCount++;
+                }
+            }else{
+                unreachable.append(label);
+                unreachableCount++;
+            }
+        }
+        System.out.println("vertex cover ("+coverCount+"):"+cover);
+        System.out.println("independent set ("+independentCount+"):"+independent);
+        System.out.println("even ("+evenCount+"):"+even);
+        System.out.println("odd ("+oddCount+"):"+odd);
+        System.out.println("unreachable ("+unreachableCount+"):"+unreachable);
+    }
+
+    /**
+     *This method performs bfs on the reversed residual graph from sink
+     * incoming edges are collected in one pass over the adjacency list
+     * @return
+     * pre: residual graph should be created
+     * post: returns true for every node from which sink is reachable
+     */
+    private boolean[] findNodesReachingSink(){
+
+        int[] inDegree=new int[numberOfNodes+1];
+        for (int i=0;i<numberOfNodes;i++){
+            for (Edge edge:residualGraph.getNodeFromGraph(i))
+                inDegree[edge.getDest().getId()+1]++;
+        }
+        for (int i=0;i<numberOfNodes;i++)
+            inDegree[i+1]+=inDegree[i];
+        int[] next=inDegree.clone();
+        int[] incoming=new int[inDegree[numberOfNodes]];
+        for (int i=0;i<numberOfNodes;i++){
+            for (Edge edge:residualGraph.getNodeFromGraph(i))
+                incoming[next[edge.getDest().getId()]++]=i;
+        }
+
+        boolean visited[] = new boolean[numberOfNodes];
+        Deque<Integer> q = new ArrayDeque<>(numberOfNodes);
+        q.offer(numberOfNodes-1);
+        visited[numberOfNodes-1]=true;
+        while (!q.isEmpty()) {
+            int node = q.poll();
+            for (int k=inDegree[node];k<inDegree[node+1];k++){
+                int source=incoming[k];
+                if(!visited[source]){
+                    visited[source]=true;
+                    q.offer(source);
+                }
+            }
+        }
+        return visited;
+    }
+
 }
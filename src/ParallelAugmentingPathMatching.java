@@ -0,0 +1,228 @@
+/**
+ * This Class finds maximum bipartite matching by searching augmenting paths from many free left nodes at once
+ * Functionality includes:
+ * 1. create initial matching greedily
+ * 2. in every phase start dfs from all free left nodes in parallel on a ForkJoinPool
+ * 3. right nodes are claimed with compare and set so paths found in a phase are vertex disjoint
+ *    and every thread augments its own path without locking
+ * 4. lookahead for a free right node before advancing, lookahead position of a node is kept between phases
+ * 5. when a parallel phase finds no path, a sequential phase confirms that matching is maximum
+ * @author Sayali Kudale
+ */
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+public class ParallelAugmentingPathMatching {
+
+    private static final int rootsPerTask = 64;	//free left nodes searched by one task without splitting further
+    private int threads;
+    private BipartiteAdjacency graph;
+    private int[] mate;
+    private int[] nextEdge;
+    private int[] lookahead;
+    private AtomicIntegerArray visited;
+    private AtomicInteger augmented;
+    private int phase;
+    private int sequentialAugmentations;
+
+    /**
+     *constructor to initialise parallel matching object
+     * @param threads parallelism of the ForkJoinPool
+     * pre: threads should be at least one
+     * post: parallel matching object gets initialised
+     */
+    public ParallelAugmentingPathMatching(int threads) {
+        if (threads < 1)
+            throw new IllegalArgumentException("Number of threads should be at least one");
+        this.threads = threads;
+    }
+
+    /**
+     * This Class searches augmenting paths from a range of free left nodes
+     * range is split in halves until it has at most rootsPerTask nodes
+     */
+    private class PhaseTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+        private int[] roots;
+        private int low;
+        private int high;
+        private int[] pathLeft = new int[16];
+
+        private PhaseTask(int[] roots, int low, int high) {
+            this.roots = roots;
+            this.low = low;
+            this.high = high;
+        }
+
+        @Override
+        protected void compute() {
+            if (high - low > rootsPerTask) {
+                int middle = (low + high) >>> 1;
+                invokeAll(new PhaseTask(roots, low, middle), new PhaseTask(roots, middle, high));
+                return;
+            }
+            for (int i = low; i < high; i++) {
+                if (searchPath(roots[i]))
+                    augmented.incrementAndGet();
+            }
+        }
+
+        /**
+         *This method performs dfs from the given free left node
+         * 1. lookahead for unclaimed free right node and augment if found
+         * 2. otherwise claim next right node and advance to its mate
+         * 3. retreat when left node has no more edges
+         * @param root
+         * @return
+         * pre: root should be unmatched
+         * post: returns true and augment the path if free right node is claimed
+         */
+        private boolean searchPath(int root) {
+
+            int[] offsets = graph.getOffsets();
+            int[] targets = graph.getTargets();
+            int depth = 0;
+            pathLeft[0] = root;
+            nextEdge[root] = offsets[root];
+            while (depth >= 0) {
+                int left = pathLeft[depth];
+                for (; lookahead[left] < offsets[left + 1]; lookahead[left]++) {
+                    int right = targets[lookahead[left]];
+                    if (mate[right] == 0 && claim(right)) {
+                        augment(depth, right);
+                        return true;
+                    }
+                }
+                if (nextEdge[left] == offsets[left + 1]) {
+                    depth--;
+                    continue;
+                }
+                int right = targets[nextEdge[left]++];
+                if (!claim(right))
+                    continue;
+                int matchedLeft = mate[right];
+                if (matchedLeft == 0) {
+                    augment(depth, right);
+                    return true;
+                }
+                if (++depth == pathLeft.length)
+                    pathLeft = Arrays.copyOf(pathLeft, 2 * depth);
+                pathLeft[depth] = matchedLeft;
+                nextEdge[matchedLeft] = offsets[matchedLeft];
+            }
+            return false;
+        }
+
+        /**
+         *This method reverse the flow along the path which ends at given free right node
+         * @param depth
+         * @param right
+         * pre: every node of path should be claimed by this task
+         * post: matching size gets increased by one
+         */
+        private void augment(int depth, int right) {
+            for (int i = depth; i >= 0; i--) {
+                int previousRight = mate[pathLeft[i]];
+                mate[pathLeft[i]] = right;
+                mate[right] = pathLeft[i];
+                right = previousRight;
+            }
+        }
+    }
+
+    /**
+     *This method marks the right node as visited in current phase
+     * @param right
+     * @return
+     * pre: visited array should be created
+     * post: returns true only for the first thread which claims the node in this phase
+     */
+    private boolean claim(int right) {
+        int index = right - graph.getSetSize() - 1;
+        int stamp = visited.get(index);
+        return stamp != phase && visited.compareAndSet(index, stamp, phase);
+    }
+
+    /**
+     *This method
+     * 1. creates greedy initial matching
+     * 2. runs parallel phases until a phase finds no augmenting path
+     * 3. confirms with a sequential phase
+     * @param g
+     * @return
+     * pre: compressed adjacency should be created
+     * post: returns mate array of maximum matching with 0 for unmatched nodes
+     */
+    public int[] findMaxMatching(BipartiteAdjacency g) {
+
+        this.graph = g;
+        int setSize = g.getSetSize();
+        int[] offsets = g.getOffsets();
+        int[] targets = g.getTargets();
+        mate = new int[g.getNoOfNodes() + 1];
+        nextEdge = new int[setSize + 1];
+        lookahead = new int[setSize + 1];
+        visited = new AtomicIntegerArray(g.getNoOfNodes() - setSize);
+        augmented = new AtomicInteger();
+
+        for (int left = 1; left <= setSize; left++) {
+            lookahead[left] = offsets[left];
+            for (int k = offsets[left]; k < offsets[left + 1]; k++) {
+                if (mate[targets[k]] == 0) {
+                    mate[left] = targets[k];
+                    mate[targets[k]] = left;
+                    break;
+                }
+            }
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            phase = 0;
+            int found;
+            do {
+                phase++;
+                int[] roots = freeLeftNodes();
+                augmented.set(0);
+                pool.invoke(new PhaseTask(roots, 0, roots.length));
+                found = augmented.get();
+            } while (found > 0);
+        } finally {
+            pool.shutdown();
+        }
+        sequentialAugmentations = AugmentingPathSearch.augmentToMaximum(g, mate);
+        return mate;
+    }
+
+    /**
+     *This method collects the unmatched left nodes which have edges
+     * @return
+     * pre: mate array should be created
+     * post: returns the array of free left nodes
+     */
+    private int[] freeLeftNodes() {
+        int setSize = graph.getSetSize();
+        int[] offsets = graph.getOffsets();
+        int count = 0;
+        int[] roots = new int[setSize];
+        for (int left = 1; left <= setSize; left++) {
+            if (mate[left] == 0 && offsets[left + 1] > offsets[left])
+                roots[count++] = left;
+        }
+        return Arrays.copyOf(roots, count);
+    }
+
+    /**
+     *This method prints the statistics of last search
+     * pre: findMaxMatching should be completed
+     * post: prints threads, phases and augmentations done by the sequential phase
+     */
+    public void printStatistics() {
+        System.out.println("parallel augmenting paths: " + threads + " threads, " + phase + " phases, "
+                + sequentialAugmentations + " augmentations in sequential phase");
+    }
+}
@@ -0,0 +1,305 @@
+/**
+ * This Class finds an approximate bipartite matching without loading the edges in memory
+ * Functionality includes:
+ * 1. read the edges one by one from the text or binary input file in every pass
+ * 2. build a greedy maximal matching in the first pass
+ * 3. improve the matching in the optional later passes by phases of layered search, every pass grows
+ *    alternating bfs trees from all free left nodes by one layer, every node joins at most one tree so
+ *    augmenting paths found by a phase are vertex disjoint; phase stops at first layer which reaches a free
+ *    right node and augments those paths
+ * 4. layers are limited to k = ceil(1/epsilon) - 2, if a phase finds no augmenting path of length up to 2k+1
+ *    then matching is at least (k+1)/(k+2) >= 1-epsilon of maximum, if the trees stop growing without a
+ *    path then matching is maximum, otherwise it is reported that epsilon was not reached in given passes
+ * 5. keep only the per node state (labels, mates and search trees) in memory
+ * 6. print the matching in the same format as the exact solver along with memory and approximation ratio
+ * @author Sayali Kudale
+ */
+import java.io.IOException;
+import java.util.ArrayList;
+
+public class StreamingBipartiteMatching {
+
+    private static final int noMate = 0;	//node ids start from 1 so 0 is used as unmatched marker
+    private static final int labelOverhead = 48;	//estimated bytes of reference, String and array headers of one label
+    private int passes;
+    private double epsilon;
+    private int maxLayers;
+    private int numberOfNodes;
+    private int setSize;
+    private String[] labels;
+    private int[] mate;
+    private int[] parent;
+    private int[] visited;
+    private int[] level;
+    private int[] root;
+    private int[] finished;
+    private boolean[] hasEdge;
+    private int phase;
+    private boolean maximum;
+    private boolean epsilonReached;
+
+    /**
+     *constructor to initialise streaming matching object
+     * @param passes total number of passes over the edges, first pass is always greedy
+     * @param epsilon matching should be at least 1-epsilon of maximum
+     * pre: passes should be at least one and epsilon should be between 0 and 1
+     * post: streaming matching object gets initialised
+     */
+    public StreamingBipartiteMatching(int passes, double epsilon) {
+        if (passes < 1)
+            throw new IllegalArgumentException("Number of passes should be at least one");
+        if (!(epsilon > 0 && epsilon < 1))
+            throw new IllegalArgumentException("Epsilon of stream mode should be between 0 and 1");
+        this.passes = passes;
+        this.epsilon = epsilon;
+        this.maxLayers = Math.max(1, (int) Math.ceil(1 / epsilon - 1e-9) - 2);
+    }
+
+    /**
+     *This method
+     * 1. performs the greedy pass to create maximal matching
+     * 2. performs the phases of layered search until matching is maximum, epsilon is reached or passes are over
+     * 3. give call to method to print output
+     * @param fileName
+     * @throws IOException
+     * pre: input file should be present in the text or binary format
+     * post: prints the approximate bipartite matching
+     */
+    public void findMatching(String fileName) throws IOException {
+
+        Runtime runtime = Runtime.getRuntime();
+        runtime.gc();
+        long usedBefore = runtime.totalMemory() - runtime.freeMemory();
+
+        int matchingCount = greedyPass(fileName);
+        int passesDone = 1;
+        ArrayList<Integer> pathEnds = new ArrayList<>();
+        while (passesDone < passes && !maximum && !epsilonReached) {
+            if (!startPhase()) {
+                maximum = true;
+                break;
+            }
+            pathEnds.clear();
+            int layer = 0;
+            for (; layer <= maxLayers && passesDone < passes; layer++) {
+                int grown = layerPass(fileName, layer, pathEnds);
+                passesDone++;
+                if (!pathEnds.isEmpty())
+                    break;
+                if (grown == 0) {
+                    maximum = true;
+                    break;
+                }
+            }
+            if (!pathEnds.isEmpty()) {
+                for (int right : pathEnds)
+                    augment(right);
+                matchingCount += pathEnds.size();
+            } else if (layer > maxLayers) {
+                epsilonReached = true;
+            }
+        }
+
+        runtime.gc();
+        long usedAfter = runtime.totalMemory() - runtime.freeMemory();
+        printMatching(matchingCount, passesDone, Math.max(0, usedAfter - usedBefore));
+    }
+
+    /**
+     *This method reads every edge once and adds it to the matching if both end nodes are unmatched
+     * @param fileName
+     * @return
+     * @throws IOException
+     * pre: input file should be present
+     * post: returns the size of the maximal matching created in mate array
+     */
+    private int greedyPass(String fileName) throws IOException {
+
+        int matchingCount = 0;
+        int[] edge = new int[2];
+        EdgeStream stream = new EdgeStream(fileName, true);
+        createNodeState(stream);
+        try {
+            while (stream.readEdge(edge)) {
+                hasEdge[edge[0]] = true;
+                hasEdge[edge[1]] = true;
+                if (mate[edge[0]] == noMate && mate[edge[1]] == noMate) {
+                    mate[edge[0]] = edge[1];
+                    mate[edge[1]] = edge[0];
+                    matchingCount++;
+                }
+            }
+        } finally {
+            stream.close();
+        }
+        return matchingCount;
+    }
+
+    /**
+     * This method starts a new phase by making every free left node with edges the root of its tree
+     * @return
+     * pre: greedy pass should be completed
+     * post: returns false if there is no free left node with edges
+     */
+    private boolean startPhase() {
+        phase++;
+        boolean rootFound = false;
+        for (int left = 1; left <= setSize; left++) {
+            if (mate[left] == noMate && hasEdge[left]) {
+                visited[left] = phase;
+                level[left] = 0;
+                root[left] = left;
+                rootFound = true;
+            }
+        }
+        return rootFound;
+    }
+
+    /**
+     *This method reads every edge once and grows the trees from left nodes of given layer
+     * 1. free right node which is not in any tree ends an augmenting path and its tree stops growing
+     * 2. matched right node which is not in any tree joins the tree along with its mate in next layer
+     * @param fileName
+     * @param layer
+     * @param pathEnds free right nodes which end augmenting paths
+     * @return
+     * @throws IOException
+     * pre: phase should be started
+     * post: returns number of left nodes added in next layer
+     */
+    private int layerPass(String fileName, int layer, ArrayList<Integer> pathEnds) throws IOException {
+
+        int[] edge = new int[2];
+        int grown = 0;
+        EdgeStream stream = openStream(fileName);
+        try {
+            while (stream.readEdge(edge)) {
+                int left = edge[0], right = edge[1];
+                if (visited[left] != phase || level[left] != layer || visited[right] == phase
+                        || finished[root[left]] == phase)
+                    continue;
+                visited[right] = phase;
+                parent[right] = left;
+                int matchedLeft = mate[right];
+                if (matchedLeft == noMate) {
+                    finished[root[left]] = phase;
+                    pathEnds.add(right);
+                } else {
+                    visited[matchedLeft] = phase;
+                    level[matchedLeft] = layer + 1;
+                    root[matchedLeft] = root[left];
+                    grown++;
+                }
+            }
+        } finally {
+            stream.close();
+        }
+        return grown;
+    }
+
+    /**
+     * This method reverses the matching along the tree path which ends at given free right node
+     * @param right
+     * pre: right should be reached in current phase and be unmatched
+     * post: every node of the path is matched and matching size gets increased by one
+     */
+    private void augment(int right) {
+        while (right != noMate) {
+            int left = parent[right];
+            int previousRight = mate[left];
+            mate[left] = right;
+            mate[right] = left;
+            right = previousRight;
+        }
+    }
+
+    /**
+     *This method opens the input again for a later pass
+     * @param fileName
+     * @return
+     * @throws IOException
+     * pre: greedy pass should be completed
+     * post: returns stream without labels, throws exception if number of nodes changed
+     */
+    private EdgeStream openStream(String fileName) throws IOException {
+        EdgeStream stream = new EdgeStream(fileName, false);
+        if (stream.getNumberOfNodes() != numberOfNodes) {
+            stream.close();
+            throw new IllegalArgumentException("Input file changed between passes");
+        }
+        return stream;
+    }
+
+    /**
+     * This method creates the arrays which are kept in memory for each node
+     * @param stream
+     * pre: stream should be opened with labels
+     * post: mate, search tree and hasEdge arrays gets created
+     */
+    private void createNodeState(EdgeStream stream) {
+        int nodes = stream.getNumberOfNodes();
+        numberOfNodes = nodes;
+        setSize = stream.getSetSize();
+        labels = stream.getLabels();
+        mate = new int[nodes + 1];
+        parent = new int[nodes + 1];
+        visited = new int[nodes + 1];
+        level = new int[nodes + 1];
+        root = new int[nodes + 1];
+        finished = new int[nodes + 1];
+        hasEdge = new boolean[nodes + 1];
+    }
+
+    /**
+     *This method prints the matching in the same format as the exact solver along with
+     * number of passes, memory used and approximation ratio
+     * ratio is computed against an upper bound of maximum matching which is minimum of
+     * non isolated nodes in each set and twice the maximal matching size, (k+2)/(k+1) of it if no
+     * augmenting path of length up to 2k+1 is left, or the matching size itself if it is maximum
+     * @param matchingCount
+     * @param passesDone
+     * @param memoryUsed heap retained after the passes, measured after gc
+     * pre: mate array should be filled
+     * post: prints the matching and statistics to the console
+     */
+    private void printMatching(int matchingCount, int passesDone, long memoryUsed) {
+
+        for (int i = setSize + 1; i <= numberOfNodes; i++) {
+            if (mate[i] != noMate)
+                System.out.println(labels[mate[i]] + " / " + labels[i]);
+        }
+        System.out.println(matchingCount + " total matches");
+
+        int leftWithEdge = 0, rightWithEdge = 0;
+        for (int i = 1; i <= numberOfNodes; i++) {
+            if (hasEdge[i]) {
+                if (i <= setSize)
+                    leftWithEdge++;
+                else
+                    rightWithEdge++;
+            }
+        }
+        long bound = 2L * matchingCount;
+        if (maximum)
+            bound = matchingCount;
+        else if (epsilonReached)
+            bound = (long) matchingCount * (maxLayers + 2) / (maxLayers + 1);
+        long upperBound = Math.min(bound, Math.min(leftWithEdge, rightWithEdge));
+        double ratio = upperBound == 0 ? 1.0 : (double) matchingCount / upperBound;
+        long stateBytes = 4L * 6 * (numberOfNodes + 1) + (numberOfNodes + 1);
+        for (int i = 1; i <= numberOfNodes; i++)
+            stateBytes += labelOverhead + labels[i].length();
+        System.out.println("passes: " + passesDone + ", phases: " + phase);
+        if (maximum)
+            System.out.println("no augmenting path is left, matching is maximum");
+        else if (epsilonReached)
+            System.out.printf("no augmenting path of length up to %d is left, matching is at least %.4f of maximum%n",
+                    2 * maxLayers + 1, (maxLayers + 1.0) / (maxLayers + 2));
+        else
+            System.out.println("epsilon " + epsilon + " not reached in " + passesDone
+                    + " passes, paths of length up to " + (2 * maxLayers + 1) + " need more passes");
+        System.out.println("node state: about " + stateBytes + " bytes including labels, "
+                + memoryUsed + " bytes retained heap measured after gc (approximate)");
+        System.out.printf("approximation ratio: at least %.4f%n", ratio);
+    }
+}
@@ -0,0 +1,226 @@
+/**
+ * This Class renumbers the nodes of graph so that neighbours get nearby ids before residual graph is created
+ * left set nodes still get ids 1 to setSize and right set nodes get setSize+1 to noOfNodes,
+ * node objects keep their labels so output is printed with original labels
+ * Functionality includes:
+ * 1. create the order of nodes by bfs, by degree or by reverse Cuthill McKee
+ * 2. create new graph with renumbered nodes and edges, every edge is added from its left node to its right node
+ * 3. report average distance of edge end nodes within their sets before and after renumbering
+ * @author Sayali Kudale
+ */
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+
+public class VertexReordering {
+
+    private String strategy;
+    private double spanBefore;
+    private double spanAfter;
+    private long reorderTime;
+
+    /**
+     *constructor to initialise reordering object
+     * @param strategy bfs, degree or rcm
+     * pre: none
+     * post: reordering object gets initialised
+     */
+    public VertexReordering(String strategy) {
+        if (!strategy.equals("bfs") && !strategy.equals("degree") && !strategy.equals("rcm"))
+            throw new IllegalArgumentException("Unknown reordering " + strategy);
+        this.strategy = strategy;
+    }
+
+    /**
+     *This method
+     * 1. creates undirected adjacency of nodes from edges of graph
+     * 2. creates the order of nodes by the strategy
+     * 3. creates the new graph with renumbered nodes and same edges
+     * @param g
+     * @return
+     * pre: nodes and edges should be added and source and sink should not be added in the graph
+     * post: returns the renumbered graph
+     */
+    public Graph reorder(Graph g) {
+
+        long start = System.nanoTime();
+        int nodes = g.getNoOfNodes();
+        int setSize = g.getSetSize();
+        ArrayList<Edge> edges = new ArrayList<>();
+        for (int i = 0; i < nodes; i++)
+            edges.addAll(g.getNodeFromGraph(i));
+
+        int[] offsets = new int[nodes + 2];
+        for (Edge e : edges) {
+            offsets[e.getSource().getId() + 1]++;
+            offsets[e.getDest().getId() + 1]++;
+        }
+        for (int i = 0; i <= nodes; i++)
+            offsets[i + 1] += offsets[i];
+        int[] next = offsets.clone();
+        int[] neighbours = new int[offsets[nodes + 1]];
+        for (Edge e : edges) {
+            neighbours[next[e.getSource().getId()]++] = e.getDest().getId();
+            neighbours[next[e.getDest().getId()]++] = e.getSource().getId();
+        }
+
+        int[] order;
+        if (strategy.equals("degree"))
+            order = degreeOrder(nodes, offsets);
+        else
+            order = bfsOrder(nodes, offsets, neighbours, strategy.equals("rcm"));
+
+        int[] newId = new int[nodes + 1];
+        int[] originalId = new int[nodes + 1];
+        int nextLeft = 1, nextRight = setSize + 1;
+        for (int old : order) {
+            int id = old <= setSize ? nextLeft++ : nextRight++;
+            newId[old] = id;
+            originalId[id] = old;
+        }
+
+        Graph reordered = new Graph(nodes);
+        for (int id = 1; id <= nodes; id++)
+            reordered.addNodes(new Node(id, g.getNodeFromList(originalId[id] - 1).getLabel()));
+        long spanOld = 0, spanNew = 0;
+        for (Edge e : edges) {
+            int source = e.getSource().getId(), dest = e.getDest().getId();
+            spanOld += span(source, dest, setSize);
+            spanNew += span(newId[source], newId[dest], setSize);
+            int left = Math.min(newId[source], newId[dest]), right = Math.max(newId[source], newId[dest]);
+            reordered.addEdge(new Edge(reordered.getNodeFromList(left - 1), reordered.getNodeFromList(right - 1)));
+        }
+        spanBefore = edges.isEmpty() ? 0 : (double) spanOld / edges.size();
+        spanAfter = edges.isEmpty() ? 0 : (double) spanNew / edges.size();
+        reorderTime = System.nanoTime() - start;
+        return reordered;
+    }
+
+    /**
+     * This method returns the distance between positions of the edge end nodes within their own set
+     * @param source
+     * @param dest
+     * @param setSize
+     * @return
+     * pre: one node should be in left set and other in right set
+     * post: returns the edge span
+     */
+    private static int span(int source, int dest, int setSize) {
+        int left = Math.min(source, dest), right = Math.max(source, dest);
+        return Math.abs(left - (right - setSize));
+    }
+
+    /**
+     *This method orders nodes by decreasing degree, nodes with same degree keep input order
+     * @param nodes
+     * @param offsets
+     * @return
+     * pre: undirected adjacency offsets should be created
+     * post: returns original node ids in new order
+     */
+    private int[] degreeOrder(int nodes, int[] offsets) {
+        Integer[] order = new Integer[nodes];
+        for (int i = 0; i < nodes; i++)
+            order[i] = i + 1;
+        Arrays.sort(order, Comparator.comparingInt((Integer u) -> offsets[u] - offsets[u + 1]));
+        return Arrays.stream(order).mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     *This method orders nodes by bfs over every connected component
+     * for Cuthill McKee every component starts from its lowest degree node, neighbours are visited
+     * in increasing degree and the final order is reversed
+     * @param nodes
+     * @param offsets
+     * @param neighbours
+     * @param cuthillMcKee
+     * @return
+     * pre: undirected adjacency should be created
+     * post: returns original node ids in new order
+     */
+    private int[] bfsOrder(int nodes, int[] offsets, int[] neighbours, boolean cuthillMcKee) {
+
+        int[] starts = new int[nodes];
+        for (int i = 0; i < nodes; i++)
+            starts[i] = i + 1;
+        if (cuthillMcKee) {
+            starts = degreeOrder(nodes, offsets);
+            for (int i = 0, j = nodes - 1; i < j; i++, j--) {
+                int swap = starts[i];
+                starts[i] = starts[j];
+                starts[j] = swap;
+            }
+        }
+
+        boolean[] visited = new boolean[nodes + 1];
+        int[] order = new int[nodes];
+        int[] unvisited = new int[nodes];
+        long[] keys = cuthillMcKee ? new long[nodes] : null;
+        int count = 0;
+        Deque<Integer> q = new ArrayDeque<>();
+        for (int start : starts) {
+            if (visited[start])
+                continue;
+            visited[start] = true;
+            q.offer(start);
+            while (!q.isEmpty()) {
+                int node = q.poll();
+                order[count++] = node;
+                int found = 0;
+                for (int k = offsets[node]; k < offsets[node + 1]; k++) {
+                    int neighbour = neighbours[k];
+                    if (!visited[neighbour]) {
+                        visited[neighbour] = true;
+                        unvisited[found++] = neighbour;
+                    }
+                }
+                if (cuthillMcKee)
+                    sortByDegree(unvisited, found, offsets, keys);
+                for (int i = 0; i < found; i++)
+                    q.offer(unvisited[i]);
+            }
+        }
+        if (cuthillMcKee) {
+            for (int i = 0, j = nodes - 1; i < j; i++, j--) {
+                int swap = order[i];
+                order[i] = order[j];
+                order[j] = swap;
+            }
+        }
+        return order;
+    }
+
+    /**
+     * This method sorts the first nodes of the array by increasing degree, nodes with same degree are
+     * sorted by id, degree and id are packed in one long key so that primitive sort is used
+     * @param order
+     * @param count number of nodes to sort
+     * @param offsets
+     * @param keys scratch array with at least count entries
+     * pre: undirected adjacency offsets should be created
+     * post: nodes from index 0 to count-1 are in increasing degree order
+     */
+    private void sortByDegree(int[] order, int count, int[] offsets, long[] keys) {
+        for (int i = 0; i < count; i++) {
+            int node = order[i];
+            keys[i] = (long) (offsets[node + 1] - offsets[node]) << 32 | node;
+        }
+        Arrays.sort(keys, 0, count);
+        for (int i = 0; i < count; i++)
+            order[i] = (int) keys[i];
+    }
+
+    /**
+     *This method prints the reordering statistics
+     * average edge span is the mean distance between positions of edge end nodes within their sets,
+     * smaller span means neighbours are stored close together in the node indexed arrays
+     * pre: reorder should be completed
+     * post: prints strategy, time and average edge span before and after
+     */
+    public void printStatistics() {
+        System.out.printf("reorder %s: %.1f ms, average edge span %.1f -> %.1f%n",
+                strategy, reorderTime / 1e6, spanBefore, spanAfter);
+    }
+}